@@ -0,0 +1,249 @@
+/* DO NOT EDIT THIS FILE - it is machine generated */
+#include <jni.h>
+/* Header for class org_jnisat_COMiniSatPS */
+
+#ifndef _Included_org_jnisat_COMiniSatPS
+#define _Included_org_jnisat_COMiniSatPS
+#ifdef __cplusplus
+extern "C" {
+#endif
+#undef org_jnisat_COMiniSatPS_FLAG_TRY_TRUE
+#define org_jnisat_COMiniSatPS_FLAG_TRY_TRUE 1L
+#undef org_jnisat_COMiniSatPS_FLAG_TRY_FALSE
+#define org_jnisat_COMiniSatPS_FLAG_TRY_FALSE 2L
+#undef org_jnisat_COMiniSatPS_FLAG_ELIMINATE
+#define org_jnisat_COMiniSatPS_FLAG_ELIMINATE 4L
+#undef org_jnisat_COMiniSatPS_FLAG_NODECISION
+#define org_jnisat_COMiniSatPS_FLAG_NODECISION 8L
+#undef org_jnisat_COMiniSatPS_SIMPLIFY_NEVER
+#define org_jnisat_COMiniSatPS_SIMPLIFY_NEVER 0L
+#undef org_jnisat_COMiniSatPS_SIMPLIFY_ONCE
+#define org_jnisat_COMiniSatPS_SIMPLIFY_ONCE 1L
+#undef org_jnisat_COMiniSatPS_SIMPLIFY_ALWAYS
+#define org_jnisat_COMiniSatPS_SIMPLIFY_ALWAYS 2L
+#undef org_jnisat_COMiniSatPS_LBOOL_TRUE
+#define org_jnisat_COMiniSatPS_LBOOL_TRUE 0L
+#undef org_jnisat_COMiniSatPS_LBOOL_FALSE
+#define org_jnisat_COMiniSatPS_LBOOL_FALSE 1L
+#undef org_jnisat_COMiniSatPS_LBOOL_UNDEF
+#define org_jnisat_COMiniSatPS_LBOOL_UNDEF 2L
+/*
+ * Class:     org_jnisat_COMiniSatPS
+ * Method:    cominisatps_ctor
+ * Signature: ()J
+ */
+JNIEXPORT jlong JNICALL Java_org_jnisat_COMiniSatPS_cominisatps_1ctor
+  (JNIEnv *, jclass);
+
+/*
+ * Class:     org_jnisat_COMiniSatPS
+ * Method:    cominisatps_dtor
+ * Signature: (J)V
+ */
+JNIEXPORT void JNICALL Java_org_jnisat_COMiniSatPS_cominisatps_1dtor
+  (JNIEnv *, jclass, jlong);
+
+/*
+ * Class:     org_jnisat_COMiniSatPS
+ * Method:    cominisatps_copy
+ * Signature: (JZ)J
+ */
+JNIEXPORT jlong JNICALL Java_org_jnisat_COMiniSatPS_cominisatps_1copy
+  (JNIEnv *, jclass, jlong, jboolean);
+
+/*
+ * Class:     org_jnisat_COMiniSatPS
+ * Method:    cominisatps_new_var
+ * Signature: (JZZ)I
+ */
+JNIEXPORT jint JNICALL Java_org_jnisat_COMiniSatPS_cominisatps_1new_1var
+  (JNIEnv *, jclass, jlong, jboolean, jboolean);
+
+/*
+ * Class:     org_jnisat_COMiniSatPS
+ * Method:    cominisatps_set_decision_var
+ * Signature: (JIZ)V
+ */
+JNIEXPORT void JNICALL Java_org_jnisat_COMiniSatPS_cominisatps_1set_1decision_1var
+  (JNIEnv *, jclass, jlong, jint, jboolean);
+
+/*
+ * Class:     org_jnisat_COMiniSatPS
+ * Method:    cominisatps_set_frozen
+ * Signature: (JIZ)V
+ */
+JNIEXPORT void JNICALL Java_org_jnisat_COMiniSatPS_cominisatps_1set_1frozen
+  (JNIEnv *, jclass, jlong, jint, jboolean);
+
+/*
+ * Class:     org_jnisat_COMiniSatPS
+ * Method:    cominisatps_add_clause
+ * Signature: (JI)Z
+ */
+JNIEXPORT jboolean JNICALL Java_org_jnisat_COMiniSatPS_cominisatps_1add_1clause__JI
+  (JNIEnv *, jclass, jlong, jint);
+
+/*
+ * Class:     org_jnisat_COMiniSatPS
+ * Method:    cominisatps_add_clause
+ * Signature: (JII)Z
+ */
+JNIEXPORT jboolean JNICALL Java_org_jnisat_COMiniSatPS_cominisatps_1add_1clause__JII
+  (JNIEnv *, jclass, jlong, jint, jint);
+
+/*
+ * Class:     org_jnisat_COMiniSatPS
+ * Method:    cominisatps_add_clause
+ * Signature: (JIII)Z
+ */
+JNIEXPORT jboolean JNICALL Java_org_jnisat_COMiniSatPS_cominisatps_1add_1clause__JIII
+  (JNIEnv *, jclass, jlong, jint, jint, jint);
+
+/*
+ * Class:     org_jnisat_COMiniSatPS
+ * Method:    cominisatps_add_clause
+ * Signature: (J[I)Z
+ */
+JNIEXPORT jboolean JNICALL Java_org_jnisat_COMiniSatPS_cominisatps_1add_1clause__J_3I
+  (JNIEnv *, jclass, jlong, jintArray);
+
+/*
+ * Class:     org_jnisat_COMiniSatPS
+ * Method:    cominisatps_add_clauses
+ * Signature: (JLjava/nio/IntBuffer;II)Z
+ */
+JNIEXPORT jboolean JNICALL Java_org_jnisat_COMiniSatPS_cominisatps_1add_1clauses
+  (JNIEnv *, jclass, jlong, jobject, jint, jint);
+
+/*
+ * Class:     org_jnisat_COMiniSatPS
+ * Method:    cominisatps_solve
+ * Signature: (JZZ)Z
+ */
+JNIEXPORT jboolean JNICALL Java_org_jnisat_COMiniSatPS_cominisatps_1solve
+  (JNIEnv *, jclass, jlong, jboolean, jboolean);
+
+/*
+ * Class:     org_jnisat_COMiniSatPS
+ * Method:    cominisatps_solve_limited
+ * Signature: (J[IZZJJ)B
+ */
+JNIEXPORT jbyte JNICALL Java_org_jnisat_COMiniSatPS_cominisatps_1solve_1limited
+  (JNIEnv *, jclass, jlong, jintArray, jboolean, jboolean, jlong, jlong);
+
+/*
+ * Class:     org_jnisat_COMiniSatPS
+ * Method:    cominisatps_interrupt
+ * Signature: (J)V
+ */
+JNIEXPORT void JNICALL Java_org_jnisat_COMiniSatPS_cominisatps_1interrupt
+  (JNIEnv *, jclass, jlong);
+
+/*
+ * Class:     org_jnisat_COMiniSatPS
+ * Method:    cominisatps_solve_all
+ * Signature: (J[I[IZZJJ)I
+ */
+JNIEXPORT jint JNICALL Java_org_jnisat_COMiniSatPS_cominisatps_1solve_1all
+  (JNIEnv *, jclass, jlong, jintArray, jintArray, jboolean, jboolean, jlong, jlong);
+
+/*
+ * Class:     org_jnisat_COMiniSatPS
+ * Method:    cominisatps_simplify
+ * Signature: (J)Z
+ */
+JNIEXPORT jboolean JNICALL Java_org_jnisat_COMiniSatPS_cominisatps_1simplify
+  (JNIEnv *, jclass, jlong);
+
+/*
+ * Class:     org_jnisat_COMiniSatPS
+ * Method:    cominisatps_eliminate
+ * Signature: (JZ)Z
+ */
+JNIEXPORT jboolean JNICALL Java_org_jnisat_COMiniSatPS_cominisatps_1eliminate
+  (JNIEnv *, jclass, jlong, jboolean);
+
+/*
+ * Class:     org_jnisat_COMiniSatPS
+ * Method:    cominisatps_is_eliminated
+ * Signature: (JI)Z
+ */
+JNIEXPORT jboolean JNICALL Java_org_jnisat_COMiniSatPS_cominisatps_1is_1eliminated
+  (JNIEnv *, jclass, jlong, jint);
+
+/*
+ * Class:     org_jnisat_COMiniSatPS
+ * Method:    cominisatps_okay
+ * Signature: (J)Z
+ */
+JNIEXPORT jboolean JNICALL Java_org_jnisat_COMiniSatPS_cominisatps_1okay
+  (JNIEnv *, jclass, jlong);
+
+/*
+ * Class:     org_jnisat_COMiniSatPS
+ * Method:    cominisatps_model_value
+ * Signature: (JI)B
+ */
+JNIEXPORT jbyte JNICALL Java_org_jnisat_COMiniSatPS_cominisatps_1model_1value
+  (JNIEnv *, jclass, jlong, jint);
+
+/*
+ * Class:     org_jnisat_COMiniSatPS
+ * Method:    cominisatps_model
+ * Signature: (J[I)V
+ */
+JNIEXPORT void JNICALL Java_org_jnisat_COMiniSatPS_cominisatps_1model
+  (JNIEnv *, jclass, jlong, jintArray);
+
+/*
+ * Class:     org_jnisat_COMiniSatPS
+ * Method:    cominisatps_model_values
+ * Signature: (J[I[B)V
+ */
+JNIEXPORT void JNICALL Java_org_jnisat_COMiniSatPS_cominisatps_1model_1values
+  (JNIEnv *, jclass, jlong, jintArray, jbyteArray);
+
+/*
+ * Class:     org_jnisat_COMiniSatPS
+ * Method:    cominisatps_failed_assumptions
+ * Signature: (J)[I
+ */
+JNIEXPORT jintArray JNICALL Java_org_jnisat_COMiniSatPS_cominisatps_1failed_1assumptions
+  (JNIEnv *, jclass, jlong);
+
+/*
+ * Class:     org_jnisat_COMiniSatPS
+ * Method:    cominisatps_exchange_ctor
+ * Signature: (I)J
+ */
+JNIEXPORT jlong JNICALL Java_org_jnisat_COMiniSatPS_cominisatps_1exchange_1ctor
+  (JNIEnv *, jclass, jint);
+
+/*
+ * Class:     org_jnisat_COMiniSatPS
+ * Method:    cominisatps_exchange_dtor
+ * Signature: (J)V
+ */
+JNIEXPORT void JNICALL Java_org_jnisat_COMiniSatPS_cominisatps_1exchange_1dtor
+  (JNIEnv *, jclass, jlong);
+
+/*
+ * Class:     org_jnisat_COMiniSatPS
+ * Method:    cominisatps_set_exchange
+ * Signature: (JJII)V
+ */
+JNIEXPORT void JNICALL Java_org_jnisat_COMiniSatPS_cominisatps_1set_1exchange
+  (JNIEnv *, jclass, jlong, jlong, jint, jint);
+
+/*
+ * Class:     org_jnisat_COMiniSatPS
+ * Method:    cominisatps_set_random_seed
+ * Signature: (JD)V
+ */
+JNIEXPORT void JNICALL Java_org_jnisat_COMiniSatPS_cominisatps_1set_1random_1seed
+  (JNIEnv *, jclass, jlong, jdouble);
+
+#ifdef __cplusplus
+}
+#endif
+#endif
@@ -0,0 +1,161 @@
+/* DO NOT EDIT THIS FILE - it is machine generated */
+#include <jni.h>
+/* Header for class org_jnisat_JPicoSat */
+
+#ifndef _Included_org_jnisat_JPicoSat
+#define _Included_org_jnisat_JPicoSat
+#ifdef __cplusplus
+extern "C" {
+#endif
+#undef org_jnisat_JPicoSat_FLAG_TRY_TRUE
+#define org_jnisat_JPicoSat_FLAG_TRY_TRUE 1L
+#undef org_jnisat_JPicoSat_FLAG_TRY_FALSE
+#define org_jnisat_JPicoSat_FLAG_TRY_FALSE 2L
+#undef org_jnisat_JPicoSat_FLAG_ELIMINATE
+#define org_jnisat_JPicoSat_FLAG_ELIMINATE 4L
+#undef org_jnisat_JPicoSat_FLAG_NODECISION
+#define org_jnisat_JPicoSat_FLAG_NODECISION 8L
+#undef org_jnisat_JPicoSat_PHASE_POSITIVE
+#define org_jnisat_JPicoSat_PHASE_POSITIVE 1L
+#undef org_jnisat_JPicoSat_PHASE_DEFAULT
+#define org_jnisat_JPicoSat_PHASE_DEFAULT 0L
+#undef org_jnisat_JPicoSat_PHASE_NEGATIVE
+#define org_jnisat_JPicoSat_PHASE_NEGATIVE -1L
+#undef org_jnisat_JPicoSat_PICOSAT_UNKNOWN
+#define org_jnisat_JPicoSat_PICOSAT_UNKNOWN 0L
+#undef org_jnisat_JPicoSat_PICOSAT_SATISFIABLE
+#define org_jnisat_JPicoSat_PICOSAT_SATISFIABLE 10L
+#undef org_jnisat_JPicoSat_PICOSAT_UNSATISFIABLE
+#define org_jnisat_JPicoSat_PICOSAT_UNSATISFIABLE 20L
+/*
+ * Class:     org_jnisat_JPicoSat
+ * Method:    picosat_version
+ * Signature: ()Ljava/lang/String;
+ */
+JNIEXPORT jstring JNICALL Java_org_jnisat_JPicoSat_picosat_1version
+  (JNIEnv *, jclass);
+
+/*
+ * Class:     org_jnisat_JPicoSat
+ * Method:    picosat_api_version
+ * Signature: ()I
+ */
+JNIEXPORT jint JNICALL Java_org_jnisat_JPicoSat_picosat_1api_1version
+  (JNIEnv *, jclass);
+
+/*
+ * Class:     org_jnisat_JPicoSat
+ * Method:    picosat_interruptible_init
+ * Signature: (Ljava/nio/ByteBuffer;)J
+ */
+JNIEXPORT jlong JNICALL Java_org_jnisat_JPicoSat_picosat_1interruptible_1init
+  (JNIEnv *, jclass, jobject);
+
+/*
+ * Class:     org_jnisat_JPicoSat
+ * Method:    picosat_reset
+ * Signature: (J)V
+ */
+JNIEXPORT void JNICALL Java_org_jnisat_JPicoSat_picosat_1reset
+  (JNIEnv *, jclass, jlong);
+
+/*
+ * Class:     org_jnisat_JPicoSat
+ * Method:    picosat_inc_max_var
+ * Signature: (J)I
+ */
+JNIEXPORT jint JNICALL Java_org_jnisat_JPicoSat_picosat_1inc_1max_1var
+  (JNIEnv *, jclass, jlong);
+
+/*
+ * Class:     org_jnisat_JPicoSat
+ * Method:    picosat_set_default_phase_lit
+ * Signature: (JII)V
+ */
+JNIEXPORT void JNICALL Java_org_jnisat_JPicoSat_picosat_1set_1default_1phase_1lit
+  (JNIEnv *, jclass, jlong, jint, jint);
+
+/*
+ * Class:     org_jnisat_JPicoSat
+ * Method:    picosat_set_more_important_lit
+ * Signature: (JI)V
+ */
+JNIEXPORT void JNICALL Java_org_jnisat_JPicoSat_picosat_1set_1more_1important_1lit
+  (JNIEnv *, jclass, jlong, jint);
+
+/*
+ * Class:     org_jnisat_JPicoSat
+ * Method:    picosat_set_less_important_lit
+ * Signature: (JI)V
+ */
+JNIEXPORT void JNICALL Java_org_jnisat_JPicoSat_picosat_1set_1less_1important_1lit
+  (JNIEnv *, jclass, jlong, jint);
+
+/*
+ * Class:     org_jnisat_JPicoSat
+ * Method:    picosat_add
+ * Signature: (JI)I
+ */
+JNIEXPORT jint JNICALL Java_org_jnisat_JPicoSat_picosat_1add
+  (JNIEnv *, jclass, jlong, jint);
+
+/*
+ * Class:     org_jnisat_JPicoSat
+ * Method:    picosat_assume
+ * Signature: (JI)V
+ */
+JNIEXPORT void JNICALL Java_org_jnisat_JPicoSat_picosat_1assume
+  (JNIEnv *, jclass, jlong, jint);
+
+/*
+ * Class:     org_jnisat_JPicoSat
+ * Method:    picosat_sat
+ * Signature: (JI)I
+ */
+JNIEXPORT jint JNICALL Java_org_jnisat_JPicoSat_picosat_1sat
+  (JNIEnv *, jclass, jlong, jint);
+
+/*
+ * Class:     org_jnisat_JPicoSat
+ * Method:    picosat_set_propagation_budget
+ * Signature: (JJ)V
+ */
+JNIEXPORT void JNICALL Java_org_jnisat_JPicoSat_picosat_1set_1propagation_1budget
+  (JNIEnv *, jclass, jlong, jlong);
+
+/*
+ * Class:     org_jnisat_JPicoSat
+ * Method:    picosat_deref
+ * Signature: (JI)I
+ */
+JNIEXPORT jint JNICALL Java_org_jnisat_JPicoSat_picosat_1deref
+  (JNIEnv *, jclass, jlong, jint);
+
+/*
+ * Class:     org_jnisat_JPicoSat
+ * Method:    picosat_model
+ * Signature: (J[I)V
+ */
+JNIEXPORT void JNICALL Java_org_jnisat_JPicoSat_picosat_1model
+  (JNIEnv *, jclass, jlong, jintArray);
+
+/*
+ * Class:     org_jnisat_JPicoSat
+ * Method:    picosat_deref_all
+ * Signature: (J[I[B)V
+ */
+JNIEXPORT void JNICALL Java_org_jnisat_JPicoSat_picosat_1deref_1all
+  (JNIEnv *, jclass, jlong, jintArray, jbyteArray);
+
+/*
+ * Class:     org_jnisat_JPicoSat
+ * Method:    picosat_failed_assumptions
+ * Signature: (J)[I
+ */
+JNIEXPORT jintArray JNICALL Java_org_jnisat_JPicoSat_picosat_1failed_1assumptions
+  (JNIEnv *, jclass, jlong);
+
+#ifdef __cplusplus
+}
+#endif
+#endif
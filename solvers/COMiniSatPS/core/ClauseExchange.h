@@ -0,0 +1,136 @@
+/*********************************************************************************[ClauseExchange.h]
+Copyright (c) 2016, Miklos Maroti, University of Szeged
+
+Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+associated documentation files (the "Software"), to deal in the Software without restriction,
+including without limitation the rights to use, copy, modify, merge, publish, distribute,
+sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all copies or
+substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT
+OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+**************************************************************************************************/
+
+#ifndef Minisat_ClauseExchange_h
+#define Minisat_ClauseExchange_h
+
+#include "mtl/Vec.h"
+#include "core/SolverTypes.h"
+
+namespace Minisat {
+
+//=================================================================================================
+// ClauseExchange -- a lock-free ring buffer of short learnt clauses shared by parallel solvers:
+//
+// Every clause gets a position in the stream of exported clauses. Writers reserve a position with
+// an atomic increment, claim the slot by swapping its stamp to 'busy', and stamp the slot with the
+// position when done. A writer drops its clause if another writer holds the slot or a later clause
+// is already there. Readers keep their own cursor, skip the clauses that have already been
+// overwritten and throw away the ones that were overwritten while being copied.
+
+class ClauseExchange {
+public:
+    enum { max_size = 14 };                                    // Longer clauses are not exchanged.
+
+    ClauseExchange(int capacity);
+    ~ClauseExchange();
+
+    uint64_t position() const { return head; }                 // The position of the next exported clause.
+    void     exportClause(int id, const vec<Lit>& c, int lbd); // Called by solver 'id' for its learnt clauses.
+    bool     importClause(int id, uint64_t& cursor, vec<Lit>& out, int& out_lbd);
+                                                               // Copies the next clause not exported by
+                                                               // solver 'id', returns FALSE if there is none.
+
+private:
+    struct Slot {
+        volatile uint64_t stamp;                               // Position of the clause plus one, zero if empty,
+                                                               // or 'busy' while written.
+        int               id;
+        int               lbd;
+        int               size;
+        Lit               lits[max_size];
+    };
+
+    static const uint64_t busy = ~(uint64_t)0;
+
+    Slot*             slots;
+    int               cap;
+    volatile uint64_t head;
+
+    ClauseExchange(const ClauseExchange&);                     // Not copyable.
+};
+
+
+inline ClauseExchange::ClauseExchange(int capacity) : cap(capacity), head(0)
+{
+    assert(capacity > 0);
+    slots = new Slot[cap];
+    for (int i = 0; i < cap; i++)
+        slots[i].stamp = 0;
+}
+
+inline ClauseExchange::~ClauseExchange() { delete[] slots; }
+
+inline void ClauseExchange::exportClause(int id, const vec<Lit>& c, int lbd)
+{
+    if (c.size() > max_size) return;
+
+    uint64_t pos   = __sync_fetch_and_add(&head, (uint64_t)1);
+    Slot&    s     = slots[pos % cap];
+    uint64_t stamp = s.stamp;
+
+    // Two writers a whole ring apart may get the same slot, only one of them can write it:
+    if (stamp == busy || stamp > pos || !__sync_bool_compare_and_swap(&s.stamp, stamp, busy))
+        return;
+
+    s.id   = id;
+    s.lbd  = lbd;
+    s.size = c.size();
+    for (int i = 0; i < c.size(); i++)
+        s.lits[i] = c[i];
+    __sync_synchronize();
+    s.stamp = pos + 1;
+}
+
+inline bool ClauseExchange::importClause(int id, uint64_t& cursor, vec<Lit>& out, int& out_lbd)
+{
+    for (;;){
+        uint64_t end = head;
+        __sync_synchronize();
+        if (cursor >= end) return false;
+        if (end - cursor > (uint64_t)cap) cursor = end - cap;
+
+        const Slot& s = slots[cursor % cap];
+        uint64_t stamp = s.stamp;
+        if (stamp != cursor + 1){
+            if (stamp != busy && stamp > cursor + 1){
+                cursor++;                                      // Overwritten by a later clause.
+                continue; }
+            return false; }                                    // Not written yet, retry later.
+
+        __sync_synchronize();
+        int from = s.id;
+        int size = s.size < max_size ? s.size : max_size;
+        out_lbd  = s.lbd;
+        out.clear();
+        for (int i = 0; i < size; i++)
+            out.push(s.lits[i]);
+        __sync_synchronize();
+
+        bool valid = s.stamp == cursor + 1;
+        cursor++;
+        if (valid && from != id)
+            return true;
+    }
+}
+
+//=================================================================================================
+}
+
+#endif
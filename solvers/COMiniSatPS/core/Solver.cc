@@ -112,6 +112,13 @@ Solver::Solver() :
   , conflict_budget    (-1)
   , propagation_budget (-1)
   , asynch_interrupt   (false)
+
+    // Clause sharing:
+    //
+  , exchange           (NULL)
+  , exchange_id        (0)
+  , exchange_lbd       (0)
+  , exchange_cursor    (0)
 {}
 
 
@@ -792,6 +799,9 @@ lbool Solver::search(int& nof_conflicts)
             analyze(confl, learnt_clause, backtrack_level, lbd);
             cancelUntil(backtrack_level);
 
+            if (exchange != NULL && lbd <= exchange_lbd)
+                exchange->exportClause(exchange_id, learnt_clause, lbd);
+
             if (glucose_restart){
                 conflicts_glue++;
                 lbd_queue.push(lbd);
@@ -842,11 +852,13 @@ lbool Solver::search(int& nof_conflicts)
                 restart = lbd_queue.full() && (lbd_queue.avg() * K > global_lbd_sum / conflicts_glue);
                 cached = true;
             }
-            if (restart/* || !withinBudget()*/){
+            if (restart || !withinBudget()){
                 lbd_queue.clear();
                 // Reached bound on number of conflicts:
                 progress_estimate = progressEstimate();
                 cancelUntil(0);
+                if (exchange != NULL && !importClauses())
+                    return l_False;
                 return l_Undef; }
 
             // Simplify the set of problem clauses:
@@ -861,7 +873,7 @@ lbool Solver::search(int& nof_conflicts)
                 reduceDB(); }
 
             Lit next = lit_Undef;
-            /*while (decisionLevel() < assumptions.size()){
+            while (decisionLevel() < assumptions.size()){
                 // Perform user provided assumption:
                 Lit p = assumptions[decisionLevel()];
                 if (value(p) == l_True){
@@ -876,7 +888,7 @@ lbool Solver::search(int& nof_conflicts)
                 }
             }
 
-            if (next == lit_Undef)*/{
+            if (next == lit_Undef){
                 // New variable decision:
                 decisions++;
                 next = pickBranchLit();
@@ -894,6 +906,56 @@ lbool Solver::search(int& nof_conflicts)
 }
 
 
+/*_________________________________________________________________________________________________
+|
+|  importClauses : [void]  ->  [bool]
+|
+|  Description:
+|    Adds the clauses exported by the other solvers of the exchange as learnt clauses. They are
+|    consequences of the same problem clauses, so the empty clause means the problem is UNSAT.
+|    Must be called at decision level 0. Returns FALSE if a conflict was found.
+|________________________________________________________________________________________________@*/
+bool Solver::importClauses()
+{
+    assert(decisionLevel() == 0);
+    vec<Lit>& c = exchange_tmp;
+    int lbd;
+
+    while (exchange->importClause(exchange_id, exchange_cursor, c, lbd)){
+        // Remove false literals and skip satisfied clauses:
+        int i, j;
+        for (i = j = 0; i < c.size(); i++){
+            if (!importable(var(c[i])) || value(c[i]) == l_True)
+                break;
+            else if (value(c[i]) != l_False)
+                c[j++] = c[i];
+        }
+        if (i < c.size())
+            continue;
+        c.shrink(i - j);
+
+        if (c.size() == 0)
+            return ok = false;
+        else if (c.size() == 1)
+            uncheckedEnqueue(c[0]);
+        else{
+            CRef cr = ca.alloc(c, true);
+            ca[cr].set_lbd(lbd);
+            if (lbd <= core_lbd_cut){
+                learnts_core.push(cr);
+                ca[cr].mark(CORE);
+            }else{
+                learnts_tier2.push(cr);
+                ca[cr].mark(TIER2);
+                ca[cr].touched() = conflicts; }
+            attachClause(cr);
+        }
+    }
+
+    return true;
+}
+
+
 double Solver::progressEstimate() const
 {
     double  progress = 0;
@@ -963,7 +1025,7 @@ lbool Solver::solve_()
 
     glucose_restart = true;
     int init = 10000;
-    while (status == l_Undef && init > 0 /*&& withinBudget()*/)
+    while (status == l_Undef && init > 0 && withinBudget())
         status = search(init);
     if (status == l_Undef)
         glucose_restart = false;
@@ -973,9 +1035,9 @@ lbool Solver::solve_()
     for (;;){
         int weighted = glucose_restart ? phase_allotment * 2 : phase_allotment;
 
-        while (status == l_Undef && weighted > 0 /*&& withinBudget()*/)
+        while (status == l_Undef && weighted > 0 && withinBudget())
             status = search(weighted);
-        if (status != l_Undef/* || !withinBudget()*/)
+        if (status != l_Undef || !withinBudget())
             break; // Should break here for correctness in incremental SAT solving.
 
         glucose_restart = !glucose_restart;
@@ -39,6 +39,7 @@ OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWA
 #include "mtl/Alg.h"
 #include "utils/Options.h"
 #include "core/SolverTypes.h"
+#include "core/ClauseExchange.h"
 
 
 // Don't change the actual numbers.
@@ -142,6 +143,11 @@ public:
     void    interrupt();          // Trigger a (potentially asynchronous) interruption of the solver.
     void    clearInterrupt();     // Clear interrupt indicator flag.
 
+    // Clause sharing:
+    //
+    void    setExchange(ClauseExchange* ex, int id, int max_lbd); // Export learnt clauses with LBD at most 'max_lbd' and
+                                                                   // import the clauses of other solvers at restarts.
+
     // Memory managment:
     //
     virtual void garbageCollect();
@@ -272,6 +278,14 @@ protected:
     int64_t             propagation_budget; // -1 means no budget.
     bool                asynch_interrupt;
 
+    // Clause sharing:
+    //
+    ClauseExchange*     exchange;           // NULL means no sharing.
+    int                 exchange_id;
+    int                 exchange_lbd;
+    uint64_t            exchange_cursor;
+    vec<Lit>            exchange_tmp;
+
     // Main internal methods:
     //
     void     insertVarOrder   (Var x);                                                 // Insert a variable in the decision order priority queue.
@@ -292,6 +306,8 @@ protected:
     void     rebuildOrderHeap ();
     bool     binResMinimize   (vec<Lit>& out_learnt);                                  // Further learnt clause minimization by binary resolution.
     void     cleanLearnts     (vec<CRef>& learnts, unsigned valid_mark);
+    bool     importClauses    ();                                                      // Add the clauses exported by other solvers (at level 0).
+    virtual bool importable   (Var v) const { return v < nVars(); }                    // Returns TRUE if clauses with 'v' can be imported.
 
     // Maintaining Variable/Clause activity:
     //
@@ -430,6 +446,8 @@ inline void     Solver::setConfBudget(int64_t x){ conflict_budget    = conflicts
 inline void     Solver::setPropBudget(int64_t x){ propagation_budget = propagations + x; }
 inline void     Solver::interrupt(){ asynch_interrupt = true; }
 inline void     Solver::clearInterrupt(){ asynch_interrupt = false; }
+inline void     Solver::setExchange(ClauseExchange* ex, int id, int max_lbd){
+    exchange = ex; exchange_id = id; exchange_lbd = max_lbd; exchange_cursor = ex != NULL ? ex->position() : 0; }
 inline void     Solver::budgetOff(){ conflict_budget = propagation_budget = -1; }
 inline bool     Solver::withinBudget() const {
     return !asynch_interrupt &&
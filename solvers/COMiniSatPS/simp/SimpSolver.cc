@@ -671,6 +671,102 @@ bool SimpSolver::eliminate(bool turn_off_elim)
 }
 
 
+//=================================================================================================
+// Cloning:
+
+
+// Copies the variables with their activities, the top-level assignment, the problem clauses and the
+// eliminated clauses to the empty solver 'to'. Learnt clauses are copied only after simplification
+// has been turned off, because variable elimination would not take them into account.
+void SimpSolver::copyTo(SimpSolver& to, bool copy_learnts)
+{
+    assert(decisionLevel() == 0);
+    assert(to.nVars() == 0);
+
+    if (!use_simplification)
+        to.eliminate(true);
+
+    for (Var v = 0; v < nVars(); v++){
+        to.newVar(polarity[v], decision[v]);
+        to.frozen         [v] = frozen         [v];
+        to.eliminated     [v] = eliminated     [v];
+        to.activity_no_r  [v] = activity_no_r  [v];
+        to.activity_glue_r[v] = activity_glue_r[v];
+    }
+    to.var_inc_no_r    = var_inc_no_r;
+    to.var_inc_glue_r  = var_inc_glue_r;
+    to.eliminated_vars = eliminated_vars;
+    elimclauses.copyTo(to.elimclauses);
+
+    if (!ok){
+        to.addEmptyClause();
+        return; }
+
+    for (int i = 0; i < trail.size(); i++)
+        if (!to.addClause(trail[i]))
+            return;
+
+    vec<Lit> lits;
+    for (int i = 0; i < clauses.size(); i++){
+        const Clause& c = ca[clauses[i]];
+        if (c.mark() == 1) continue;
+
+        lits.clear();
+        for (int j = 0; j < c.size(); j++)
+            lits.push(c[j]);
+        if (!to.addClause_(lits))
+            return;
+    }
+
+    if (copy_learnts && !use_simplification){
+        copyLearnts(to, learnts_core,  to.learnts_core,  CORE);
+        copyLearnts(to, learnts_tier2, to.learnts_tier2, TIER2);
+        copyLearnts(to, learnts_local, to.learnts_local, LOCAL);
+
+        to.cla_inc        = cla_inc;
+        to.conflicts      = conflicts;
+        to.core_lbd_cut   = core_lbd_cut;
+        to.next_T2_reduce = next_T2_reduce;
+        to.next_L_reduce  = next_L_reduce;
+    }
+
+    to.rebuildOrderHeap();
+}
+
+
+void SimpSolver::copyLearnts(SimpSolver& to, vec<CRef>& from_learnts, vec<CRef>& to_learnts, unsigned valid_mark)
+{
+    vec<Lit> lits;
+    for (int i = 0; i < from_learnts.size() && to.ok; i++){
+        Clause& c = ca[from_learnts[i]];
+        if (c.mark() != valid_mark) continue;
+
+        // Remove false literals and skip satisfied clauses:
+        int j;
+        lits.clear();
+        for (j = 0; j < c.size() && to.value(c[j]) != l_True; j++)
+            if (to.value(c[j]) != l_False)
+                lits.push(c[j]);
+        if (j < c.size())
+            continue;
+
+        if (lits.size() < 2){
+            to.addClause_(lits);
+            continue; }
+
+        CRef cr = to.ca.alloc(lits, true);
+        Clause& d = to.ca[cr];
+        d.mark(valid_mark);
+        d.touched() = c.touched();
+        d.activity() = c.activity();
+        d.set_lbd(c.lbd());
+        d.removable(c.removable());
+        to_learnts.push(cr);
+        to.attachClause(cr);
+    }
+}
+
+
 //=================================================================================================
 // Garbage Collection methods:
 
@@ -65,6 +65,10 @@ class SimpSolver : public Solver {
     bool    solve       (Lit p, Lit q, Lit r, bool do_simp = true, bool turn_off_simp = false);
     bool    eliminate   (bool turn_off_elim = false);  // Perform variable elimination based simplification.
 
+    // Cloning:
+    //
+    void    copyTo      (SimpSolver& to, bool copy_learnts = true); // Copy the variables and clauses to an empty solver.
+
     // Memory managment:
     //
     virtual void garbageCollect();
@@ -160,6 +164,8 @@ class SimpSolver : public Solver {
     bool          strengthenClause         (CRef cr, Lit l);
     bool          implied                  (const vec<Lit>& c);
     void          relocAll                 (ClauseAllocator& to);
+    void          copyLearnts              (SimpSolver& to, vec<CRef>& from_learnts, vec<CRef>& to_learnts, unsigned valid_mark);
+    bool          importable               (Var v) const { return Solver::importable(v) && !isEliminated(v); }
 };
 
 
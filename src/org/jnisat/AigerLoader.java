@@ -0,0 +1,302 @@
+/**
+ * Copyright (c) 2016, Miklos Maroti, University of Szeged
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to
+ * deal in the Software without restriction, including without limitation the
+ * rights to use, copy, modify, merge, publish, distribute, sublicense, and/or
+ * sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS
+ * IN THE SOFTWARE.
+ */
+
+package org.jnisat;
+
+import java.io.*;
+import java.nio.*;
+import java.nio.file.*;
+import java.util.*;
+
+import org.sat4j.reader.*;
+
+/**
+ * Translates a circuit in binary AIGER format into clauses of a solver. The
+ * circuit is unrolled frame by frame for bounded model checking: the latches
+ * of the first time frame start from their initial values, the latches of
+ * each later frame are the next states of the previous one. The clauses of
+ * each frame are added with {@link Solver#addClauses(IntBuffer)} in large
+ * direct buffers. A typical use is to add frames one by one and solve under
+ * the assumption {@link #getProperty(int)} of the last frame.
+ */
+public class AigerLoader {
+	protected final Solver solver;
+	protected int flags = 0;
+
+	private AndInverterGraph graph;
+	protected int truelit;
+	protected int valid;
+	protected int frames;
+
+	protected int[] frame = new int[0];
+	protected int[] previous = new int[0];
+	protected int[] inputs = new int[0];
+	protected int[] properties = new int[0];
+
+	protected IntBuffer buffer = Solver.allocateClauseBuffer(1 << 16);
+
+	/**
+	 * Constructs a loader that adds the variables and clauses to the given
+	 * solver.
+	 */
+	public AigerLoader(Solver solver) {
+		this.solver = solver;
+	}
+
+	/**
+	 * Sets the flags the variables are created with, see
+	 * {@link Solver#addVariable(int)}.
+	 */
+	public void setVariableFlags(int flags) {
+		this.flags = flags;
+	}
+
+	/**
+	 * Reads a circuit from the given file, which can be compressed, and adds
+	 * its first time frame to the solver.
+	 *
+	 * @throws IOException
+	 *             if the file cannot be read or it is not in AIGER format
+	 */
+	public void load(Path path) throws IOException {
+		try (InputStream in = DecompressingInputStream.open(Files
+				.newInputStream(path))) {
+			load(in);
+		}
+	}
+
+	/**
+	 * Reads a circuit from the given stream and adds its first time frame to
+	 * the solver.
+	 *
+	 * @throws IOException
+	 *             if the stream cannot be read or it is not in AIGER format
+	 */
+	public void load(InputStream in) throws IOException {
+		try {
+			graph = AndInverterGraph.read(in);
+		} catch (ParseFormatException e) {
+			throw new IOException(e.getMessage(), e);
+		}
+
+		int size = graph.getMaxVar() + 1;
+		if (frame.length < size) {
+			frame = new int[size];
+			previous = new int[size];
+		}
+		frames = 0;
+		truelit = solver.addVariable(flags);
+		solver.addClause(truelit);
+		valid = truelit;
+		addFrame();
+	}
+
+	/**
+	 * @return the number of inputs of the circuit
+	 */
+	public int getInputs() {
+		return graph.getInputs();
+	}
+
+	/**
+	 * @return the number of latches of the circuit
+	 */
+	public int getLatches() {
+		return graph.getLatches();
+	}
+
+	/**
+	 * @return the number of outputs of the circuit
+	 */
+	public int getOutputs() {
+		return graph.getOutputs();
+	}
+
+	/**
+	 * @return the number of time frames added so far
+	 */
+	public int getFrames() {
+		return frames;
+	}
+
+	/**
+	 * Adds the next time frame of the circuit to the solver.
+	 *
+	 * @return the index of the new time frame
+	 */
+	public int addFrame() {
+		int ninputs = graph.getInputs();
+		int nlatches = graph.getLatches();
+		int nands = graph.getAnds();
+		int[] swap = previous;
+		previous = frame;
+		frame = swap;
+		frame[0] = -truelit;
+
+		if (inputs.length < (frames + 1) * ninputs)
+			inputs = Arrays.copyOf(inputs, 2 * (frames + 1) * ninputs);
+		for (int i = 0; i < ninputs; i++) {
+			int var = solver.addVariable(flags);
+			frame[i + 1] = var;
+			inputs[frames * ninputs + i] = var;
+		}
+
+		for (int i = 0; i < nlatches; i++) {
+			int var;
+			if (frames > 0)
+				var = literal(previous, graph.getLatchNext(i));
+			else if (graph.getLatchReset(i) == 0)
+				var = -truelit;
+			else if (graph.getLatchReset(i) == 1)
+				var = truelit;
+			else
+				var = solver.addVariable(flags);
+			frame[ninputs + i + 1] = var;
+		}
+
+		for (int i = 0; i < nands; i++) {
+			int var = solver.addVariable(flags);
+			frame[ninputs + nlatches + i + 1] = var;
+			int a = literal(frame, graph.getAndInput0(i));
+			int b = literal(frame, graph.getAndInput1(i));
+			reserve(10);
+			buffer.put(-var).put(a).put(0);
+			buffer.put(-var).put(b).put(0);
+			buffer.put(var).put(-a).put(-b).put(0);
+		}
+
+		// the constraints hold in all time frames up to this one
+		int nconstraints = graph.getConstraints();
+		if (nconstraints > 0) {
+			int var = solver.addVariable(flags);
+			reserve(4 * nconstraints + 6);
+			buffer.put(var).put(-valid);
+			for (int i = 0; i < nconstraints; i++)
+				buffer.put(-literal(frame, graph.getConstraint(i)));
+			buffer.put(0);
+			buffer.put(-var).put(valid).put(0);
+			for (int i = 0; i < nconstraints; i++)
+				buffer.put(-var).put(literal(frame, graph.getConstraint(i)))
+						.put(0);
+			valid = var;
+		}
+
+		int nproperties = graph.getProperties();
+		int bad;
+		if (nproperties == 0)
+			bad = -truelit;
+		else if (nproperties == 1)
+			bad = literal(frame, graph.getProperty(0));
+		else {
+			bad = solver.addVariable(flags);
+			reserve(4 * nproperties + 2);
+			buffer.put(-bad);
+			for (int i = 0; i < nproperties; i++)
+				buffer.put(literal(frame, graph.getProperty(i)));
+			buffer.put(0);
+			for (int i = 0; i < nproperties; i++)
+				buffer.put(bad).put(-literal(frame, graph.getProperty(i)))
+						.put(0);
+		}
+
+		int hit = bad;
+		if (valid != truelit) {
+			hit = solver.addVariable(flags);
+			reserve(10);
+			buffer.put(-hit).put(valid).put(0);
+			buffer.put(-hit).put(bad).put(0);
+			buffer.put(hit).put(-valid).put(-bad).put(0);
+		}
+
+		if (properties.length <= frames)
+			properties = Arrays.copyOf(properties, 2 * frames + 1);
+		properties[frames] = hit;
+		flush();
+		return frames++;
+	}
+
+	/**
+	 * Returns the literal of an input of the circuit in the given time frame.
+	 */
+	public int getInput(int frame, int index) {
+		if (frame >= frames || index >= graph.getInputs())
+			throw new IllegalArgumentException();
+		return inputs[frame * graph.getInputs() + index];
+	}
+
+	/**
+	 * Returns the literal of an AIGER literal of the circuit in the last time
+	 * frame.
+	 */
+	public int getLiteral(int aigerLiteral) {
+		return literal(frame, aigerLiteral);
+	}
+
+	/**
+	 * Returns the literal of a latch of the circuit in the last time frame.
+	 */
+	public int getLatch(int index) {
+		return literal(frame, graph.getLatchLiteral(index));
+	}
+
+	/**
+	 * Returns the literal of an output of the circuit in the last time frame.
+	 */
+	public int getOutput(int index) {
+		return literal(frame, graph.getOutput(index));
+	}
+
+	/**
+	 * Returns a literal that is true iff one of the properties of the circuit
+	 * (the bad states, or the outputs if there are none) holds in the given
+	 * time frame, and the invariant constraints hold in all time frames up to
+	 * the given one.
+	 */
+	public int getProperty(int frame) {
+		if (frame >= frames)
+			throw new IllegalArgumentException();
+		return properties[frame];
+	}
+
+	protected static int literal(int[] frame, int aigerLiteral) {
+		int lit = frame[aigerLiteral >> 1];
+		return (aigerLiteral & 1) == 0 ? lit : -lit;
+	}
+
+	/**
+	 * Makes room for the given number of literals in the clause buffer.
+	 */
+	protected void reserve(int size) {
+		if (buffer.remaining() < size) {
+			flush();
+			if (buffer.capacity() < size)
+				buffer = Solver.allocateClauseBuffer(size);
+		}
+	}
+
+	protected void flush() {
+		buffer.flip();
+		if (buffer.hasRemaining())
+			solver.addClauses(buffer);
+		buffer.clear();
+	}
+}
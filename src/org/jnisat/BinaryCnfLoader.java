@@ -0,0 +1,130 @@
+/**
+ * Copyright (c) 2016, Miklos Maroti, University of Szeged
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to
+ * deal in the Software without restriction, including without limitation the
+ * rights to use, copy, modify, merge, publish, distribute, sublicense, and/or
+ * sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS
+ * IN THE SOFTWARE.
+ */
+
+package org.jnisat;
+
+import java.io.*;
+import java.nio.*;
+import java.nio.file.*;
+
+import org.sat4j.reader.*;
+
+/**
+ * Loads a CNF in the binary format of {@link BinaryCnfFile} into a solver.
+ * The FIXED encoding written on a machine with the same byte order is memory
+ * mapped and passed to {@link Solver#addClauses(IntBuffer)} without copying,
+ * so the native solvers read the clauses straight from the page cache. The
+ * VARINT encoding is decoded into direct buffers of complete clauses. The
+ * variables are created before the clauses, so the solver must not have
+ * variables yet.
+ */
+public class BinaryCnfLoader {
+	protected final Solver solver;
+	protected int flags = 0;
+
+	protected int variables;
+	protected long clauses;
+
+	/**
+	 * Constructs a loader that adds the variables and clauses to the given
+	 * solver, which must not have variables yet.
+	 */
+	public BinaryCnfLoader(Solver solver) {
+		this.solver = solver;
+	}
+
+	/**
+	 * Sets the flags the variables are created with, see
+	 * {@link Solver#addVariable(int)}.
+	 */
+	public void setVariableFlags(int flags) {
+		this.flags = flags;
+	}
+
+	/**
+	 * @return the number of variables created
+	 */
+	public int getVariables() {
+		return variables;
+	}
+
+	/**
+	 * @return the number of clauses added
+	 */
+	public long getClauses() {
+		return clauses;
+	}
+
+	/**
+	 * Loads the given file, which is memory mapped if it is not compressed.
+	 *
+	 * @throws IOException
+	 *             if the file cannot be read or it is not in the binary format
+	 */
+	public void load(Path path) throws IOException {
+		if (!BinaryCnfFile.isBinaryCnf(path.toFile())) {
+			try (InputStream in = DecompressingInputStream.open(Files
+					.newInputStream(path))) {
+				load(in);
+			}
+			return;
+		}
+
+		try (BinaryCnfFile cnf = BinaryCnfFile.open(path.toFile())) {
+			load(cnf);
+		} catch (ParseFormatException e) {
+			throw new IOException(e.getMessage(), e);
+		}
+	}
+
+	/**
+	 * Loads a binary CNF from the given stream.
+	 *
+	 * @throws IOException
+	 *             if the stream cannot be read or it is not in the binary
+	 *             format
+	 */
+	public void load(InputStream in) throws IOException {
+		try {
+			load(new BinaryCnfFile(in));
+		} catch (ParseFormatException e) {
+			throw new IOException(e.getMessage(), e);
+		}
+	}
+
+	private void load(BinaryCnfFile cnf) throws IOException,
+			ParseFormatException {
+		while (variables < cnf.getVariables()) {
+			int lit = solver.addVariable(flags);
+			variables += 1;
+			if (lit != variables)
+				throw new IllegalStateException(
+						"the solver already has variables");
+		}
+
+		IntBuffer block;
+		while ((block = cnf.nextBlock()) != null) {
+			solver.addClauses(block);
+		}
+		clauses += cnf.getClauses();
+	}
+}
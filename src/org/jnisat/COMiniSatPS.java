@@ -22,6 +22,9 @@
 
 package org.jnisat;
 
+import java.io.*;
+import java.nio.*;
+
 /**
  * This is the JNI adapter for the COMiniSatPS solver as participated in the SAT
  * 2015 race.
@@ -33,7 +36,14 @@ public class COMiniSatPS extends Solver {
 
 	protected long handle;
 	protected boolean solvable;
+	protected int result;
 	protected boolean simplified;
+	protected long conflictBudget = -1;
+	protected long propagationBudget = -1;
+	protected double randomSeed = 0.0;
+	protected Exchange exchange;
+	protected int exchangeId;
+	protected int exchangeLbd;
 
 	protected final int simplify;
 	protected static final int SIMPLIFY_NEVER = 0;
@@ -65,9 +75,111 @@ public class COMiniSatPS extends Solver {
 			throw new OutOfMemoryError();
 
 		solvable = true;
+		result = 0;
 		simplified = false;
 		if (simplify == SIMPLIFY_NEVER)
 			cominisatps_eliminate(handle, true);
+		if (randomSeed != 0.0)
+			cominisatps_set_random_seed(handle, randomSeed);
+		if (exchange != null)
+			cominisatps_set_exchange(handle, exchange.handle, exchangeId,
+					exchangeLbd);
+	}
+
+	/**
+	 * A lock-free native buffer of learnt clauses shared by several solver
+	 * instances. Short learnt clauses are exported as they are learnt, and the
+	 * clauses of the other solvers are imported at restarts. The solvers
+	 * connected to the same exchange must have the same variables and clauses,
+	 * and must not be used after the exchange is closed.
+	 */
+	public static class Exchange implements Closeable {
+		protected long handle;
+		protected int instances;
+
+		/**
+		 * Constructs a new exchange holding the last <code>capacity</code>
+		 * exported clauses.
+		 */
+		public Exchange(int capacity) {
+			if (capacity <= 0)
+				throw new IllegalArgumentException();
+			handle = cominisatps_exchange_ctor(capacity);
+			if (handle == 0)
+				throw new OutOfMemoryError();
+		}
+
+		/**
+		 * Releases the native buffer of this exchange.
+		 */
+		@Override
+		public synchronized void close() {
+			if (handle != 0)
+				cominisatps_exchange_dtor(handle);
+			handle = 0;
+		}
+	}
+
+	/**
+	 * Connects this solver to the given clause exchange. Learnt clauses with
+	 * literal block distance at most <code>maxLbd</code> are shared.
+	 */
+	public void setExchange(Exchange exchange, int maxLbd) {
+		if (exchange == null)
+			throw new IllegalArgumentException();
+
+		synchronized (exchange) {
+			if (exchange.handle == 0)
+				throw new IllegalStateException("the exchange is closed");
+			exchangeId = exchange.instances++;
+		}
+		this.exchange = exchange;
+		exchangeLbd = maxLbd;
+		cominisatps_set_exchange(handle, exchange.handle, exchangeId, maxLbd);
+	}
+
+	/**
+	 * Sets the random seed and randomizes the initial variable activities.
+	 * This must be called before adding variables, and is used to diversify
+	 * parallel solver instances.
+	 */
+	public void setRandomSeed(double seed) {
+		if (seed <= 0.0)
+			throw new IllegalArgumentException();
+		randomSeed = seed;
+		cominisatps_set_random_seed(handle, seed);
+	}
+
+	private COMiniSatPS(COMiniSatPS solver, boolean learnts) {
+		simplify = solver.simplify;
+		handle = cominisatps_copy(solver.handle, learnts);
+		if (handle == 0)
+			throw new OutOfMemoryError();
+
+		solvable = solver.solvable;
+		simplified = solver.simplified;
+		conflictBudget = solver.conflictBudget;
+		propagationBudget = solver.propagationBudget;
+		randomSeed = solver.randomSeed;
+	}
+
+	/**
+	 * Returns a new solver with the same variables, clauses, eliminated
+	 * variables and learnt clauses. The copy is not connected to the clause
+	 * exchange of this solver.
+	 */
+	@Override
+	public COMiniSatPS copy() {
+		return copy(true);
+	}
+
+	/**
+	 * Returns a new solver with the same variables and clauses. Learnt clauses
+	 * are copied only if <code>learnts</code> is set and variable elimination
+	 * is already turned off.
+	 */
+	public COMiniSatPS copy(boolean learnts) {
+		return new COMiniSatPS(this, learnts);
 	}
 
 	@Override
@@ -115,19 +227,82 @@ public class COMiniSatPS extends Solver {
 	}
 
 	@Override
-	public boolean solve() {
-		if (!solvable)
-			return false;
+	public void addClauses(IntBuffer buffer) {
+		if (!isNativeBuffer(buffer)) {
+			super.addClauses(buffer);
+			return;
+		}
+
+		int start = buffer.position();
+		int end = buffer.limit();
+		if (end > start && buffer.get(end - 1) != 0)
+			throw new IllegalArgumentException("unterminated clause");
+
+		solvable &= cominisatps_add_clauses(handle, buffer, start, end);
+		buffer.position(end);
+	}
+
+	@Override
+	public int solveLimited(int... assumptions) {
+		boolean simp = simplify == SIMPLIFY_ALWAYS
+				|| (simplify == SIMPLIFY_ONCE && !simplified);
+		boolean turnoff = simplify == SIMPLIFY_ONCE && !simplified;
+		simplified = true;
+
+		byte a = cominisatps_solve_limited(handle, assumptions, simp, turnoff,
+				conflictBudget, propagationBudget);
+		solvable = a == LBOOL_TRUE;
+		result = a == LBOOL_TRUE ? 1 : a == LBOOL_FALSE ? -1 : 0;
+		return result;
+	}
+
+	@Override
+	public void setConflictBudget(long budget) {
+		conflictBudget = budget;
+	}
+
+	@Override
+	public void setPropagationBudget(long budget) {
+		propagationBudget = budget;
+	}
+
+	@Override
+	public void interrupt() {
+		cominisatps_interrupt(handle);
+	}
 
-		if (simplify == SIMPLIFY_ONCE) {
-			solvable = cominisatps_solve(handle, !simplified, !simplified);
-			simplified = true;
-		} else if (simplify == SIMPLIFY_ALWAYS)
-			solvable = cominisatps_solve(handle, true, false);
-		else
-			solvable = cominisatps_solve(handle, false, false);
+	@Override
+	public int solveAll(int[] projection, int[] models) {
+		if (projection.length == 0)
+			throw new IllegalArgumentException();
+
+		boolean simp = simplify == SIMPLIFY_ALWAYS
+				|| (simplify == SIMPLIFY_ONCE && !simplified);
+		boolean turnoff = simplify == SIMPLIFY_ONCE && !simplified;
+		simplified = true;
+
+		int n = cominisatps_solve_all(handle, projection, models, simp,
+				turnoff, conflictBudget, propagationBudget);
+		if (n < 0) {
+			solvable = false;
+			result = 0;
+			return -n - 1;
+		}
+		solvable = n == models.length / projection.length;
+		result = solvable ? 1 : -1;
+		return n;
+	}
 
-		return solvable;
+	@Override
+	public int[] getFailedAssumptions() {
+		if (result >= 0)
+			throw new IllegalStateException(
+					"the last solve call did not fail");
+		// the conflict is not cleared if simplification finds the instance
+		// unsatisfiable
+		if (!cominisatps_okay(handle))
+			return NO_ASSUMPTIONS;
+		return cominisatps_failed_assumptions(handle);
 	}
 
 	@Override
@@ -138,10 +313,28 @@ public class COMiniSatPS extends Solver {
 		return a == LBOOL_TRUE ? 1 : -1;
 	}
 
+	@Override
+	public void getModel(int[] dest) {
+		assert solvable;
+		cominisatps_model(handle, dest);
+	}
+
+	@Override
+	public void getValues(int[] literals, byte[] values) {
+		assert solvable;
+		if (values.length < literals.length)
+			throw new IllegalArgumentException();
+
+		cominisatps_model_values(handle, literals, values);
+	}
+
 	protected static native long cominisatps_ctor();
 
 	protected static native void cominisatps_dtor(long handle);
 
+	protected static native long cominisatps_copy(long handle,
+			boolean learnts);
+
 	protected static native int cominisatps_new_var(long handle,
 			boolean polarity, boolean decision);
 
@@ -162,9 +355,22 @@ public class COMiniSatPS extends Solver {
 	protected static native boolean cominisatps_add_clause(long handle,
 			int[] lits);
 
+	protected static native boolean cominisatps_add_clauses(long handle,
+			IntBuffer buffer, int start, int end);
+
 	protected static native boolean cominisatps_solve(long handle,
 			boolean simplify, boolean turnoff);
 
+	protected static native byte cominisatps_solve_limited(long handle,
+			int[] assumptions, boolean simplify, boolean turnoff,
+			long conflictBudget, long propagationBudget);
+
+	protected static native void cominisatps_interrupt(long handle);
+
+	protected static native int cominisatps_solve_all(long handle,
+			int[] projection, int[] models, boolean simplify, boolean turnoff,
+			long conflictBudget, long propagationBudget);
+
 	protected static native boolean cominisatps_simplify(long handle);
 
 	protected static native boolean cominisatps_eliminate(long handle,
@@ -180,4 +386,21 @@ public class COMiniSatPS extends Solver {
 	protected static final byte LBOOL_UNDEF = 2;
 
 	protected static native byte cominisatps_model_value(long handle, int lit);
+
+	protected static native void cominisatps_model(long handle, int[] dest);
+
+	protected static native void cominisatps_model_values(long handle,
+			int[] lits, byte[] values);
+
+	protected static native int[] cominisatps_failed_assumptions(long handle);
+
+	protected static native long cominisatps_exchange_ctor(int capacity);
+
+	protected static native void cominisatps_exchange_dtor(long handle);
+
+	protected static native void cominisatps_set_exchange(long handle,
+			long exchange, int id, int maxLbd);
+
+	protected static native void cominisatps_set_random_seed(long handle,
+			double seed);
 }
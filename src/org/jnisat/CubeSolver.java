@@ -0,0 +1,428 @@
+/**
+ * Copyright (c) 2016, Miklos Maroti, University of Szeged
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to
+ * deal in the Software without restriction, including without limitation the
+ * rights to use, copy, modify, merge, publish, distribute, sublicense, and/or
+ * sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS
+ * IN THE SOFTWARE.
+ */
+
+
+package org.jnisat;
+
+import java.nio.*;
+import java.util.*;
+import java.util.concurrent.*;
+
+/**
+ * This solver splits the instance into cubes and solves them in parallel as
+ * assumptions. The initial cubes fix the most frequently occurring variables,
+ * and a cube that runs out of its conflict budget is split further. Idle
+ * solvers take the next cube from a shared queue, and the cubes refuted by
+ * the same failed assumptions are skipped.
+ */
+public class CubeSolver extends PortfolioSolver {
+	protected final int depth;
+	protected long cubeBudget = 10000;
+	protected long conflictBudget = -1;
+	protected int[] occurrences = new int[16];
+	protected int[] failed;
+	protected volatile Work work;
+
+	/**
+	 * Constructs a new cube solver from the given solver instances, which must
+	 * not have variables yet. The instance is split into at most
+	 * <code>2^depth</code> initial cubes.
+	 */
+	public CubeSolver(int depth, Solver... solvers) {
+		super(solvers);
+		if (depth < 0)
+			throw new IllegalArgumentException();
+		this.depth = depth;
+	}
+
+	/**
+	 * Constructs a new cube solver with one COMiniSatPS instance per available
+	 * processor.
+	 */
+	public CubeSolver() {
+		this(Runtime.getRuntime().availableProcessors());
+	}
+
+	private CubeSolver(int threads) {
+		this(3 + 32 - Integer.numberOfLeadingZeros(threads),
+				instances(threads));
+	}
+
+	private static Solver[] instances(int count) {
+		Solver[] solvers = new Solver[count];
+		for (int i = 0; i < count; i++)
+			solvers[i] = new COMiniSatPS();
+		return solvers;
+	}
+
+	@Override
+	public void reset() {
+		super.reset();
+		Arrays.fill(occurrences, 0);
+		failed = null;
+	}
+
+	private void count(int lit) {
+		int var = Math.abs(lit);
+		if (var >= occurrences.length)
+			occurrences = Arrays.copyOf(occurrences,
+					Math.max(var + 1, 2 * occurrences.length));
+		occurrences[var] += 1;
+	}
+
+	@Override
+	public void addClause(int lit) {
+		super.addClause(lit);
+		count(lit);
+	}
+
+	@Override
+	public void addClause(int lit1, int lit2) {
+		super.addClause(lit1, lit2);
+		count(lit1);
+		count(lit2);
+	}
+
+	@Override
+	public void addClause(int lit1, int lit2, int lit3) {
+		super.addClause(lit1, lit2, lit3);
+		count(lit1);
+		count(lit2);
+		count(lit3);
+	}
+
+	@Override
+	public void addClause(int... literals) {
+		super.addClause(literals);
+		for (int lit : literals)
+			count(lit);
+	}
+
+	@Override
+	public void addClauses(IntBuffer buffer) {
+		IntBuffer copy = buffer.duplicate();
+		super.addClauses(buffer);
+		while (copy.hasRemaining()) {
+			int lit = copy.get();
+			if (lit != 0)
+				count(lit);
+		}
+	}
+
+	/**
+	 * Returns the variables not fixed by the assumptions in decreasing order
+	 * of their number of occurrences.
+	 */
+	private int[] ranking(int[] assumptions) {
+		Set<Integer> fixed = new HashSet<Integer>();
+		for (int lit : assumptions)
+			fixed.add(Math.abs(lit));
+
+		List<Integer> vars = new ArrayList<Integer>();
+		for (int var = 1; var < occurrences.length; var++)
+			if (occurrences[var] > 0 && !fixed.contains(var))
+				vars.add(var);
+
+		Collections.sort(vars, new Comparator<Integer>() {
+			@Override
+			public int compare(Integer a, Integer b) {
+				return occurrences[b] - occurrences[a];
+			}
+		});
+
+		int[] ranking = new int[vars.size()];
+		for (int i = 0; i < ranking.length; i++)
+			ranking[i] = vars.get(i);
+		return ranking;
+	}
+
+	/**
+	 * A cube is the list of assumptions followed by the split literals, and
+	 * the next split variable is taken from the ranking at the given index.
+	 */
+	protected static class Cube {
+		final int[] literals;
+		final int next;
+
+		Cube(int[] literals, int next) {
+			this.literals = literals;
+			this.next = next;
+		}
+
+		Cube split(int lit) {
+			int[] lits = Arrays.copyOf(literals, literals.length + 1);
+			lits[literals.length] = lit;
+			return new Cube(lits, next + 1);
+		}
+
+		boolean contains(int[] lits) {
+			outer: for (int a : lits) {
+				for (int b : literals)
+					if (a == b)
+						continue outer;
+				return false;
+			}
+			return true;
+		}
+	}
+
+	/**
+	 * The shared state of the solvers working on the cubes of a single solve
+	 * call.
+	 */
+	protected static class Work {
+		final Deque<Cube> queue = new ArrayDeque<Cube>();
+		final List<int[]> refuted = new ArrayList<int[]>();
+		final Set<Integer> failed = new HashSet<Integer>();
+		int pending = 0;
+		int result = -1;
+		Solver winner;
+		volatile boolean stopped;
+		long remaining;
+
+		Work(long budget) {
+			remaining = budget;
+		}
+
+		/**
+		 * Takes the conflict budget of the next cube from the remaining budget
+		 * of the solve call, where negative values mean no limit. The whole
+		 * granted budget is charged, even if the cube is solved earlier.
+		 */
+		synchronized long grant(long budget) {
+			if (remaining < 0)
+				return budget;
+			else if (budget < 0 || budget > remaining)
+				budget = remaining;
+			remaining -= budget;
+			return budget;
+		}
+
+		synchronized void add(Cube cube) {
+			queue.addFirst(cube);
+			pending += 1;
+			notifyAll();
+		}
+
+		synchronized Cube take() {
+			for (;;) {
+				if (stopped)
+					return null;
+
+				Cube cube = queue.pollFirst();
+				if (cube != null && isRefuted(cube)) {
+					pending -= 1;
+					continue;
+				} else if (cube != null)
+					return cube;
+				else if (pending == 0) {
+					notifyAll();
+					return null;
+				}
+
+				try {
+					wait();
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+					return null;
+				}
+			}
+		}
+
+		private boolean isRefuted(Cube cube) {
+			for (int[] lits : refuted)
+				if (cube.contains(lits))
+					return true;
+			return false;
+		}
+
+		synchronized void done() {
+			pending -= 1;
+			if (pending == 0)
+				notifyAll();
+		}
+
+		synchronized void refute(int[] lits, int[] assumptions) {
+			refuted.add(lits);
+			for (int lit : assumptions)
+				for (int a : lits)
+					if (a == lit)
+						failed.add(lit);
+		}
+
+		synchronized void stop(int result, Solver winner) {
+			if (!stopped) {
+				stopped = true;
+				this.result = result;
+				this.winner = winner;
+				if (result < 0)
+					failed.clear();
+			}
+			notifyAll();
+		}
+	}
+
+	@Override
+	public int solveLimited(final int... assumptions) {
+		final int[] ranking = ranking(assumptions);
+		final Work work = new Work(conflictBudget);
+
+		Cube cube = new Cube(assumptions.clone(), 0);
+		List<Cube> cubes = Collections.singletonList(cube);
+		while (cube.next < Math.min(depth, ranking.length)) {
+			List<Cube> next = new ArrayList<Cube>();
+			for (Cube c : cubes) {
+				next.add(c.split(ranking[c.next]));
+				next.add(c.split(-ranking[c.next]));
+			}
+			cubes = next;
+			cube = cubes.get(0);
+		}
+		for (int i = cubes.size() - 1; i >= 0; i--)
+			work.add(cubes.get(i));
+
+		winner = null;
+		failed = null;
+		this.work = work;
+
+		List<Future<?>> futures = new ArrayList<Future<?>>();
+		for (final Solver solver : solvers)
+			futures.add(executor.submit(new Runnable() {
+				@Override
+				public void run() {
+					conquer(solver, work, ranking, assumptions);
+				}
+			}));
+
+		RuntimeException error = null;
+		boolean interrupted = false;
+		for (Future<?> future : futures) {
+			while (!future.isDone()) {
+				try {
+					future.get(10, TimeUnit.MILLISECONDS);
+				} catch (TimeoutException e) {
+					// an interrupt can be missed before a solver has started
+					if (work.stopped)
+						for (Solver solver : solvers)
+							solver.interrupt();
+				} catch (InterruptedException e) {
+					// the flag is restored after all solvers have stopped
+					interrupted = true;
+					interrupt();
+				} catch (ExecutionException e) {
+					Throwable cause = e.getCause();
+					if (error != null)
+						continue;
+					else if (cause instanceof RuntimeException)
+						error = (RuntimeException) cause;
+					else
+						error = new IllegalStateException(cause);
+					work.stop(0, null);
+				}
+			}
+		}
+
+		this.work = null;
+		if (interrupted)
+			Thread.currentThread().interrupt();
+		if (error != null)
+			throw error;
+
+		synchronized (work) {
+			winner = work.winner;
+			if (work.result < 0) {
+				failed = new int[work.failed.size()];
+				int i = 0;
+				for (int lit : work.failed)
+					failed[i++] = lit;
+			}
+			return work.result;
+		}
+	}
+
+	private void conquer(Solver solver, Work work, int[] ranking,
+			int[] assumptions) {
+		Cube cube;
+		while ((cube = work.take()) != null) {
+			boolean splittable = cubeBudget >= 0 && cube.next < ranking.length;
+			long wanted = splittable ? cubeBudget : -1;
+			long budget = work.grant(wanted);
+
+			// a cube limited by the overall budget is not split further
+			splittable &= budget == wanted;
+			solver.setConflictBudget(budget);
+			int result = solver.solveLimited(cube.literals);
+
+			if (result > 0)
+				work.stop(1, solver);
+			else if (result < 0) {
+				// without failed assumptions the formula itself is refuted
+				int[] lits = solver.getFailedAssumptions();
+				if (lits.length == 0)
+					work.stop(-1, solver);
+				else
+					work.refute(lits, assumptions);
+			} else if (splittable && !work.stopped) {
+				int var = ranking[cube.next];
+				work.add(cube.split(-var));
+				work.add(cube.split(var));
+			} else
+				work.stop(0, null);
+
+			work.done();
+		}
+	}
+
+	/**
+	 * Sets the number of conflicts after which a cube is split further. A
+	 * negative value means that the initial cubes are never split.
+	 */
+	public void setCubeBudget(long budget) {
+		cubeBudget = budget;
+	}
+
+	/**
+	 * Limits the total number of conflicts of the cubes in each subsequent
+	 * call of {@link #solveLimited(int...)}. Each cube is charged with its
+	 * whole budget, so fewer conflicts may actually be used.
+	 */
+	@Override
+	public void setConflictBudget(long budget) {
+		conflictBudget = budget;
+	}
+
+	@Override
+	public void interrupt() {
+		Work w = work;
+		if (w != null)
+			w.stop(0, null);
+		super.interrupt();
+	}
+
+	@Override
+	public int[] getFailedAssumptions() {
+		if (failed == null)
+			throw new IllegalStateException(
+					"the last solve call did not fail");
+		return failed;
+	}
+}
@@ -0,0 +1,423 @@
+/**
+ * Copyright (c) 2016, Miklos Maroti, University of Szeged
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to
+ * deal in the Software without restriction, including without limitation the
+ * rights to use, copy, modify, merge, publish, distribute, sublicense, and/or
+ * sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS
+ * IN THE SOFTWARE.
+ */
+
+package org.jnisat;
+
+import java.io.*;
+import java.nio.*;
+import java.nio.channels.*;
+import java.nio.file.*;
+import java.util.*;
+import java.util.concurrent.*;
+
+/**
+ * Loads a DIMACS CNF file into a solver. The file is memory mapped and split
+ * into chunks at line boundaries, the chunks are parsed in parallel into
+ * direct clause buffers, and the buffers are added to the solver in file order
+ * with {@link Solver#addClauses(IntBuffer)}, so the native solvers receive
+ * each chunk in a single call. The variables of the file are created in the
+ * solver as they are needed, so the solver must not have variables yet.
+ */
+public class DimacsLoader {
+	protected final Solver solver;
+	protected int threads = Runtime.getRuntime().availableProcessors();
+	protected int chunkSize = 8 << 20;
+	protected int flags = 0;
+
+	/**
+	 * The largest chunk whose clause buffer fits in a direct byte buffer.
+	 */
+	protected static final int MAX_CHUNK_SIZE = Integer.MAX_VALUE / 4;
+
+	protected int variables;
+	protected long clauses;
+	protected int declaredVariables;
+	protected long declaredClauses;
+
+	/**
+	 * Constructs a loader that adds the variables and clauses to the given
+	 * solver, which must not have variables yet.
+	 */
+	public DimacsLoader(Solver solver) {
+		this.solver = solver;
+	}
+
+	/**
+	 * Sets the number of parser threads, by default the number of processors.
+	 */
+	public void setThreads(int threads) {
+		if (threads < 1)
+			throw new IllegalArgumentException();
+		this.threads = threads;
+	}
+
+	/**
+	 * Sets the approximate number of bytes parsed by one task.
+	 */
+	public void setChunkSize(int chunkSize) {
+		if (chunkSize < 1 || chunkSize > MAX_CHUNK_SIZE)
+			throw new IllegalArgumentException();
+		this.chunkSize = chunkSize;
+	}
+
+	/**
+	 * Sets the flags the variables are created with, see
+	 * {@link Solver#addVariable(int)}.
+	 */
+	public void setVariableFlags(int flags) {
+		this.flags = flags;
+	}
+
+	/**
+	 * @return the number of variables created so far, which is at least the
+	 *         number declared in the problem line
+	 */
+	public int getVariables() {
+		return variables;
+	}
+
+	/**
+	 * @return the number of clauses added so far
+	 */
+	public long getClauses() {
+		return clauses;
+	}
+
+	/**
+	 * @return the number of clauses declared in the problem line
+	 */
+	public long getDeclaredClauses() {
+		return declaredClauses;
+	}
+
+	/**
+	 * Loads the given DIMACS CNF file. A line starting with <code>%</code>
+	 * ends the clauses, as in the SATLIB benchmarks.
+	 *
+	 * @param path
+	 *            the file to be loaded
+	 * @throws IOException
+	 *             if the file cannot be read or it is not in DIMACS format
+	 */
+	public void load(Path path) throws IOException {
+		try (FileChannel channel = FileChannel.open(path,
+				StandardOpenOption.READ)) {
+			long start = readHeader(channel);
+			ensureVariables(declaredVariables);
+
+			long[] bounds = split(channel, start);
+			ExecutorService executor = Executors.newFixedThreadPool(threads,
+					new ThreadFactory() {
+						@Override
+						public Thread newThread(Runnable runnable) {
+							Thread thread = new Thread(runnable);
+							thread.setDaemon(true);
+							return thread;
+						}
+					});
+			try {
+				feed(channel, bounds, executor);
+			} finally {
+				executor.shutdownNow();
+			}
+		}
+	}
+
+	/**
+	 * Loads the given DIMACS CNF file.
+	 *
+	 * @see #load(Path)
+	 */
+	public void load(String file) throws IOException {
+		load(Paths.get(file));
+	}
+
+	/**
+	 * Reads the comments and the problem line, and returns the offset of the
+	 * first clause.
+	 */
+	protected long readHeader(FileChannel channel) throws IOException {
+		ByteBuffer buffer = ByteBuffer.allocate(1 << 16);
+		StringBuilder line = new StringBuilder();
+		long offset = 0;
+		channel.position(0);
+		for (;;) {
+			buffer.clear();
+			if (channel.read(buffer) < 0)
+				throw new IOException("missing problem line");
+			buffer.flip();
+			while (buffer.hasRemaining()) {
+				char c = (char) buffer.get();
+				offset += 1;
+				if (c != '\n') {
+					line.append(c);
+					continue;
+				}
+
+				String text = line.toString().trim();
+				line.setLength(0);
+				if (text.isEmpty() || text.charAt(0) == 'c')
+					continue;
+
+				String[] tokens = text.split("\\s+");
+				if (tokens.length != 4 || !tokens[0].equals("p")
+						|| !tokens[1].equals("cnf"))
+					throw new IOException("invalid problem line: " + text);
+				try {
+					declaredVariables = Integer.parseInt(tokens[2]);
+					declaredClauses = Long.parseLong(tokens[3]);
+				} catch (NumberFormatException e) {
+					throw new IOException("invalid problem line: " + text);
+				}
+				if (declaredVariables < 0 || declaredClauses < 0)
+					throw new IOException("invalid problem line: " + text);
+				return offset;
+			}
+		}
+	}
+
+	/**
+	 * Returns the offsets where the chunks start, each of them at the
+	 * beginning of a line, followed by the size of the file.
+	 */
+	protected long[] split(FileChannel channel, long start)
+			throws IOException {
+		long size = channel.size();
+		long[] bounds = new long[(int) ((size - start) / chunkSize) + 2];
+		int count = 0;
+		bounds[count++] = start;
+
+		ByteBuffer buffer = ByteBuffer.allocate(1 << 12);
+		long next = start + chunkSize;
+		while (next < size) {
+			// find the end of the line containing next - 1
+			long pos = next - 1;
+			search: for (;;) {
+				buffer.clear();
+				if (channel.read(buffer, pos) < 0) {
+					pos = size;
+					break;
+				}
+				buffer.flip();
+				while (buffer.hasRemaining()) {
+					pos += 1;
+					if (buffer.get() == '\n')
+						break search;
+				}
+			}
+			if (pos >= size)
+				break;
+			bounds[count++] = pos;
+			next = pos + chunkSize;
+		}
+
+		bounds[count++] = size;
+		return Arrays.copyOf(bounds, count);
+	}
+
+	/**
+	 * Parses the chunks in parallel, and adds them to the solver in order.
+	 */
+	protected void feed(FileChannel channel, long[] bounds,
+			ExecutorService executor) throws IOException {
+		int chunks = bounds.length - 1;
+		int window = threads + 1;
+		ArrayDeque<Future<Chunk>> pending = new ArrayDeque<Future<Chunk>>();
+		ArrayDeque<IntBuffer> spare = new ArrayDeque<IntBuffer>();
+
+		int submitted = 0;
+		int[] carry = new int[16];
+		int carried = 0;
+		boolean finished = false;
+		while (!finished && (submitted < chunks || !pending.isEmpty())) {
+			while (submitted < chunks && pending.size() < window) {
+				long from = bounds[submitted];
+				long to = bounds[submitted + 1];
+				if (to - from > MAX_CHUNK_SIZE)
+					throw new IOException("line too long at offset " + from);
+
+				int capacity = (int) (to - from) / 2 + 1;
+				IntBuffer buffer = spare.poll();
+				if (buffer == null || buffer.capacity() < capacity)
+					buffer = Solver.allocateClauseBuffer(Math.max(capacity,
+							chunkSize / 2 + 1));
+
+				pending.add(executor
+						.submit(new Chunk(channel, from, to, buffer)));
+				submitted += 1;
+			}
+
+			Chunk chunk = take(pending.poll());
+			ensureVariables(chunk.maxVariable);
+			clauses += chunk.clauses;
+			finished = chunk.finished;
+
+			IntBuffer buffer = chunk.buffer;
+			int size = buffer.position();
+			int first = 0;
+			if (carried > 0) {
+				// finish the clause started in the previous chunk
+				while (first < size && buffer.get(first) != 0) {
+					if (carried >= carry.length)
+						carry = Arrays.copyOf(carry, 2 * carried);
+					carry[carried++] = buffer.get(first++);
+				}
+				if (first < size) {
+					solver.addClause(Arrays.copyOf(carry, carried));
+					carried = 0;
+					first += 1;
+				}
+			}
+
+			int last = size;
+			while (last > first && buffer.get(last - 1) != 0)
+				last -= 1;
+			if (last > first) {
+				buffer.limit(last);
+				buffer.position(first);
+				solver.addClauses(buffer);
+				buffer.limit(size);
+			}
+
+			for (int i = Math.max(first, last); i < size; i++) {
+				if (carried >= carry.length)
+					carry = Arrays.copyOf(carry, 2 * carried);
+				carry[carried++] = buffer.get(i);
+			}
+
+			buffer.clear();
+			spare.add(buffer);
+		}
+
+		for (Future<Chunk> future : pending)
+			future.cancel(true);
+		if (carried > 0)
+			throw new IOException("missing 0 at the end of the last clause");
+	}
+
+	private static Chunk take(Future<Chunk> future) throws IOException {
+		try {
+			return future.get();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new InterruptedIOException();
+		} catch (ExecutionException e) {
+			Throwable cause = e.getCause();
+			if (cause instanceof IOException)
+				throw (IOException) cause;
+			if (cause instanceof RuntimeException)
+				throw (RuntimeException) cause;
+			throw new IllegalStateException(cause);
+		}
+	}
+
+	/**
+	 * Creates the variables of the solver up to the given index.
+	 */
+	protected void ensureVariables(int count) {
+		while (variables < count) {
+			int lit = solver.addVariable(flags);
+			variables += 1;
+			if (lit != variables)
+				throw new IllegalStateException(
+						"the solver already has variables");
+		}
+	}
+
+	/**
+	 * A part of the file starting at the beginning of a line, parsed into
+	 * literals and zero terminators.
+	 */
+	protected static class Chunk implements Callable<Chunk> {
+		protected final FileChannel channel;
+		protected final long start;
+		protected final long end;
+		protected final IntBuffer buffer;
+		protected int maxVariable;
+		protected long clauses;
+		protected boolean finished;
+
+		public Chunk(FileChannel channel, long start, long end,
+				IntBuffer buffer) {
+			this.channel = channel;
+			this.start = start;
+			this.end = end;
+			this.buffer = buffer;
+		}
+
+		@Override
+		public Chunk call() throws IOException {
+			MappedByteBuffer map = channel.map(FileChannel.MapMode.READ_ONLY,
+					start, end - start);
+			final int size = map.limit();
+			final IntBuffer out = buffer;
+
+			int max = 0;
+			int pos = 0;
+			boolean lineStart = true;
+			while (pos < size) {
+				byte c = map.get(pos);
+				if (c == '\n') {
+					lineStart = true;
+					pos += 1;
+				} else if (c == ' ' || c == '\t' || c == '\r') {
+					pos += 1;
+				} else if (c == '-' || (c >= '0' && c <= '9')) {
+					boolean negative = c == '-';
+					if (negative)
+						pos += 1;
+					int begin = pos;
+					long value = 0;
+					while (pos < size && (c = map.get(pos)) >= '0' && c <= '9') {
+						value = value * 10 + (c - '0');
+						if (value > Integer.MAX_VALUE)
+							throw error("literal too large", pos);
+						pos += 1;
+					}
+					if (pos == begin)
+						throw error("invalid literal", pos);
+					int var = (int) value;
+					if (var == 0)
+						clauses += 1;
+					else if (var > max)
+						max = var;
+					out.put(negative ? -var : var);
+					lineStart = false;
+				} else if (c == 'c') {
+					while (pos < size && map.get(pos) != '\n')
+						pos += 1;
+				} else if (c == '%' && lineStart) {
+					finished = true;
+					break;
+				} else
+					throw error("unexpected character", pos);
+			}
+
+			maxVariable = max;
+			return this;
+		}
+
+		protected IOException error(String message, int pos) {
+			return new IOException(message + " at offset " + (start + pos));
+		}
+	}
+}
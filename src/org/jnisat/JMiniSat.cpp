@@ -44,6 +44,62 @@ JNIEXPORT void JNICALL Java_org_jnisat_JMiniSat_minisat_1dtor(JNIEnv *env,
 	delete decode(handle);
 }
 
+// Gives access to the protected variable flags needed for copying a solver.
+struct Access: public Minisat::SimpSolver {
+	static bool copy(Minisat::SimpSolver &from, Minisat::SimpSolver &to) {
+		const Minisat::VMap<Minisat::lbool> &user_pol =
+				from.*(&Access::user_pol);
+		const Minisat::VMap<char> &decision = from.*(&Access::decision);
+		const Minisat::VMap<char> &frozen = from.*(&Access::frozen);
+
+		for (int v = 0; v < from.nVars(); v++)
+			if (from.isEliminated(v))
+				return false;
+
+		if (!(from.*(&Access::use_simplification)))
+			to.eliminate(true);
+
+		for (int v = 0; v < from.nVars(); v++) {
+			to.newVar(user_pol[v], decision[v]);
+			to.setFrozen(v, frozen[v]);
+		}
+
+		if (!from.okay()) {
+			to.addEmptyClause();
+			return true;
+		}
+
+		for (Minisat::TrailIterator it = from.trailBegin();
+				it != from.trailEnd(); ++it)
+			to.addClause(*it);
+
+		Minisat::vec < Minisat::Lit > vec;
+		for (Minisat::ClauseIterator it = from.clausesBegin();
+				it != from.clausesEnd(); ++it) {
+			const Minisat::Clause &c = *it;
+			if (c.mark() == 1)
+				continue;
+
+			vec.clear();
+			for (int i = 0; i < c.size(); i++)
+				vec.push(c[i]);
+			to.addClause_(vec);
+		}
+
+		return true;
+	}
+};
+
+JNIEXPORT jlong JNICALL Java_org_jnisat_JMiniSat_minisat_1copy(JNIEnv *env,
+		jclass cls, jlong handle) {
+	Minisat::SimpSolver *solver = new Minisat::SimpSolver();
+	if (!Access::copy(*decode(handle), *solver)) {
+		delete solver;
+		return 0;
+	}
+	return encode(solver);
+}
+
 JNIEXPORT jint JNICALL Java_org_jnisat_JMiniSat_minisat_1new_1var(JNIEnv *env,
 		jclass cls, jlong handle, jbyte polarity) {
 	int v = decode(handle)->newVar(Minisat::lbool((uint8_t) polarity));
@@ -66,6 +122,11 @@ static inline Minisat::Lit convert(int lit) {
 	return Minisat::toLit(lit > 0 ? (lit << 1) - 2 : ((-lit) << 1) - 1);
 }
 
+static inline jint convert(Minisat::Lit lit) {
+	int v = Minisat::var(lit) + 1;
+	return Minisat::sign(lit) ? -v : v;
+}
+
 JNIEXPORT jboolean JNICALL Java_org_jnisat_JMiniSat_minisat_1add_1clause__JI(
 		JNIEnv *env, jclass cls, jlong handle, jint lit) {
 	return decode(handle)->addClause(convert(lit));
@@ -96,11 +157,116 @@ JNIEXPORT jboolean JNICALL Java_org_jnisat_JMiniSat_minisat_1add_1clause__J_3I(
 	return decode(handle)->addClause_(vec);
 }
 
+JNIEXPORT jboolean JNICALL Java_org_jnisat_JMiniSat_minisat_1add_1clauses(
+		JNIEnv *env, jclass cls, jlong handle, jobject buffer, jint start,
+		jint end) {
+	jint *p = (jint*) env->GetDirectBufferAddress(buffer);
+	Minisat::SimpSolver *solver = decode(handle);
+	Minisat::vec < Minisat::Lit > vec;
+	bool okay = true;
+
+	for (jint i = start; i < end; i++) {
+		if (p[i] != 0)
+			vec.push(convert(p[i]));
+		else {
+			okay &= solver->addClause_(vec);
+			vec.clear();
+		}
+	}
+
+	return okay;
+}
+
 JNIEXPORT jboolean JNICALL Java_org_jnisat_JMiniSat_minisat_1solve(JNIEnv *env,
 		jclass cls, jlong handle, jboolean simplify, jboolean turnoff) {
 	return decode(handle)->solve((bool) simplify, (bool) turnoff);
 }
 
+JNIEXPORT jbyte JNICALL Java_org_jnisat_JMiniSat_minisat_1solve_1limited(
+		JNIEnv *env, jclass cls, jlong handle, jintArray assumptions,
+		jboolean simplify, jboolean turnoff, jlong conflictBudget,
+		jlong propagationBudget) {
+	jint len = env->GetArrayLength(assumptions);
+	Minisat::vec < Minisat::Lit > vec(len);
+
+	jint *p = (jint*) env->GetPrimitiveArrayCritical(assumptions, 0);
+	for (jint i = 0; i < len; i++)
+		vec[i] = convert(p[i]);
+	env->ReleasePrimitiveArrayCritical(assumptions, p, 0);
+
+	Minisat::SimpSolver *solver = decode(handle);
+	solver->clearInterrupt();
+	solver->budgetOff();
+	if (conflictBudget >= 0)
+		solver->setConfBudget(conflictBudget);
+	if (propagationBudget >= 0)
+		solver->setPropBudget(propagationBudget);
+
+	Minisat::lbool a = solver->solveLimited(vec, (bool) simplify,
+			(bool) turnoff);
+	return (jbyte) Minisat::toInt(a);
+}
+
+JNIEXPORT void JNICALL Java_org_jnisat_JMiniSat_minisat_1interrupt(JNIEnv *env,
+		jclass cls, jlong handle) {
+	decode(handle)->interrupt();
+}
+
+JNIEXPORT jint JNICALL Java_org_jnisat_JMiniSat_minisat_1solve_1all(JNIEnv *env,
+		jclass cls, jlong handle, jintArray projection, jintArray models,
+		jboolean simplify, jboolean turnoff, jlong conflictBudget,
+		jlong propagationBudget) {
+	Minisat::SimpSolver *solver = decode(handle);
+	jint size = env->GetArrayLength(projection);
+	jint count = env->GetArrayLength(models) / size;
+
+	Minisat::vec < Minisat::Var > vars(size);
+	jint *p = (jint*) env->GetPrimitiveArrayCritical(projection, 0);
+	for (jint i = 0; i < size; i++)
+		vars[i] = p[i] > 0 ? p[i] - 1 : -p[i] - 1;
+	env->ReleasePrimitiveArrayCritical(projection, p, JNI_ABORT);
+
+	// the models array cannot be held while solving
+	Minisat::vec < jint > found;
+	Minisat::vec < Minisat::Lit > clause(size);
+	Minisat::vec < Minisat::Lit > assumptions;
+
+	// the budgets are shared by the whole batch
+	solver->clearInterrupt();
+	solver->budgetOff();
+	if (conflictBudget >= 0)
+		solver->setConfBudget(conflictBudget);
+	if (propagationBudget >= 0)
+		solver->setPropBudget(propagationBudget);
+
+	jint n = 0;
+	bool stopped = false;
+	while (n < count) {
+		Minisat::lbool a = solver->solveLimited(assumptions, (bool) simplify,
+				(bool) turnoff);
+		if (Minisat::toInt(a) == org_jnisat_JMiniSat_LBOOL_UNDEF)
+			stopped = true;
+		if (Minisat::toInt(a) != org_jnisat_JMiniSat_LBOOL_TRUE)
+			break;
+
+		for (jint i = 0; i < size; i++) {
+			bool value = Minisat::toInt(solver->model[vars[i]]) == 0;
+			found.push(value ? vars[i] + 1 : -vars[i] - 1);
+			clause[i] = Minisat::mkLit(vars[i], value);
+		}
+
+		n += 1;
+		if (!solver->addClause(clause))
+			break;
+	}
+
+	if (n > 0)
+		env->SetIntArrayRegion(models, 0, found.size(), found);
+
+	// the complement signals that the budget ran out or it was interrupted
+	return stopped ? -n - 1 : n;
+}
+
 JNIEXPORT jboolean JNICALL Java_org_jnisat_JMiniSat_minisat_1simplify(JNIEnv *env,
 		jclass cls, jlong handle) {
 	return decode(handle)->simplify();
@@ -126,3 +292,53 @@ JNIEXPORT jbyte JNICALL Java_org_jnisat_JMiniSat_minisat_1model_1value(JNIEnv *e
 		jclass cls, jlong handle, jint lit) {
 	return (jbyte) Minisat::toInt(decode(handle)->modelValue(convert(lit)));
 }
+
+static inline jint value(Minisat::lbool a) {
+	int b = Minisat::toInt(a);
+	return b == 0 ? 1 : b == 1 ? -1 : 0;
+}
+
+JNIEXPORT void JNICALL Java_org_jnisat_JMiniSat_minisat_1model(JNIEnv *env,
+		jclass cls, jlong handle, jintArray dest) {
+	Minisat::vec < Minisat::lbool > &model = decode(handle)->model;
+	jint len = env->GetArrayLength(dest);
+
+	jint *p = (jint*) env->GetPrimitiveArrayCritical(dest, 0);
+	for (jint i = 0; i < len; i++)
+		p[i] = i < model.size() ? value(model[i]) : 0;
+	env->ReleasePrimitiveArrayCritical(dest, p, 0);
+}
+
+JNIEXPORT void JNICALL Java_org_jnisat_JMiniSat_minisat_1model_1values(
+		JNIEnv *env, jclass cls, jlong handle, jintArray lits,
+		jbyteArray values) {
+	Minisat::vec < Minisat::lbool > &model = decode(handle)->model;
+	jint len = env->GetArrayLength(lits);
+
+	jint *p = (jint*) env->GetPrimitiveArrayCritical(lits, 0);
+	jbyte *q = (jbyte*) env->GetPrimitiveArrayCritical(values, 0);
+	for (jint i = 0; i < len; i++) {
+		Minisat::Lit lit = convert(p[i]);
+		int v = Minisat::var(lit);
+		q[i] = v < model.size() ? value(model[v] ^ Minisat::sign(lit)) : 0;
+	}
+	env->ReleasePrimitiveArrayCritical(values, q, 0);
+	env->ReleasePrimitiveArrayCritical(lits, p, JNI_ABORT);
+}
+
+JNIEXPORT jintArray JNICALL Java_org_jnisat_JMiniSat_minisat_1failed_1assumptions(
+		JNIEnv *env, jclass cls, jlong handle) {
+	const Minisat::LSet &conflict = decode(handle)->conflict;
+	jint len = conflict.size();
+
+	jintArray result = env->NewIntArray(len);
+	if (result == NULL)
+		return NULL;
+
+	jint *p = (jint*) env->GetPrimitiveArrayCritical(result, 0);
+	for (jint i = 0; i < len; i++)
+		p[i] = convert(~conflict[i]);
+	env->ReleasePrimitiveArrayCritical(result, p, 0);
+
+	return result;
+}
@@ -22,6 +22,8 @@
 
 package org.jnisat;
 
+import java.nio.*;
+
 public class JMiniSat extends Solver {
 	static {
 		LibDetect.loadLibrary("jminisat");
@@ -29,7 +31,10 @@ public class JMiniSat extends Solver {
 
 	protected long handle;
 	protected boolean solvable;
+	protected int result;
 	protected boolean simplified;
+	protected long conflictBudget = -1;
+	protected long propagationBudget = -1;
 
 	protected final int simplify;
 	protected static final int SIMPLIFY_NEVER = 0;
@@ -61,11 +66,34 @@ public class JMiniSat extends Solver {
 			throw new OutOfMemoryError();
 
 		solvable = true;
+		result = 0;
 		simplified = false;
 		if (simplify == SIMPLIFY_NEVER)
 			minisat_eliminate(handle, true);
 	}
 
+	private JMiniSat(JMiniSat solver) {
+		simplify = solver.simplify;
+		handle = minisat_copy(solver.handle);
+		if (handle == 0)
+			throw new UnsupportedOperationException(
+					"cannot copy eliminated variables");
+
+		solvable = solver.solvable;
+		simplified = solver.simplified;
+		conflictBudget = solver.conflictBudget;
+		propagationBudget = solver.propagationBudget;
+	}
+
+	/**
+	 * Returns a new solver with the same variables and clauses. Learnt clauses
+	 * are not copied, and solvers with eliminated variables cannot be copied.
+	 */
+	@Override
+	public JMiniSat copy() {
+		return new JMiniSat(this);
+	}
+
 	@Override
 	protected void finalize() {
 		if (handle != 0)
@@ -113,15 +141,78 @@ public class JMiniSat extends Solver {
 	}
 
 	@Override
-	public boolean solve() {
-		if (simplify == SIMPLIFY_ONCE) {
-			solvable = minisat_solve(handle, !simplified, !simplified);
-			simplified = true;
-		} else if (simplify == SIMPLIFY_ALWAYS)
-			solvable = minisat_solve(handle, true, false);
-		else
-			solvable = minisat_solve(handle, false, false);
-		return solvable;
+	public void addClauses(IntBuffer buffer) {
+		if (!isNativeBuffer(buffer)) {
+			super.addClauses(buffer);
+			return;
+		}
+
+		int start = buffer.position();
+		int end = buffer.limit();
+		if (end > start && buffer.get(end - 1) != 0)
+			throw new IllegalArgumentException("unterminated clause");
+
+		solvable = minisat_add_clauses(handle, buffer, start, end);
+		buffer.position(end);
+	}
+
+	@Override
+	public int solveLimited(int... assumptions) {
+		boolean simp = simplify == SIMPLIFY_ALWAYS
+				|| (simplify == SIMPLIFY_ONCE && !simplified);
+		boolean turnoff = simplify == SIMPLIFY_ONCE && !simplified;
+		simplified = true;
+
+		byte a = minisat_solve_limited(handle, assumptions, simp, turnoff,
+				conflictBudget, propagationBudget);
+		solvable = a == LBOOL_TRUE;
+		result = a == LBOOL_TRUE ? 1 : a == LBOOL_FALSE ? -1 : 0;
+		return result;
+	}
+
+	@Override
+	public void setConflictBudget(long budget) {
+		conflictBudget = budget;
+	}
+
+	@Override
+	public void setPropagationBudget(long budget) {
+		propagationBudget = budget;
+	}
+
+	@Override
+	public void interrupt() {
+		minisat_interrupt(handle);
+	}
+
+	@Override
+	public int solveAll(int[] projection, int[] models) {
+		if (projection.length == 0)
+			throw new IllegalArgumentException();
+
+		boolean simp = simplify == SIMPLIFY_ALWAYS
+				|| (simplify == SIMPLIFY_ONCE && !simplified);
+		boolean turnoff = simplify == SIMPLIFY_ONCE && !simplified;
+		simplified = true;
+
+		int n = minisat_solve_all(handle, projection, models, simp, turnoff,
+				conflictBudget, propagationBudget);
+		if (n < 0) {
+			solvable = false;
+			result = 0;
+			return -n - 1;
+		}
+		solvable = n == models.length / projection.length;
+		result = solvable ? 1 : -1;
+		return n;
+	}
+
+	@Override
+	public int[] getFailedAssumptions() {
+		if (result >= 0)
+			throw new IllegalStateException(
+					"the last solve call did not fail");
+		return minisat_failed_assumptions(handle);
 	}
 
 	@Override
@@ -132,10 +223,27 @@ public class JMiniSat extends Solver {
 		return a == LBOOL_TRUE ? 1 : -1;
 	}
 
+	@Override
+	public void getModel(int[] dest) {
+		assert solvable;
+		minisat_model(handle, dest);
+	}
+
+	@Override
+	public void getValues(int[] literals, byte[] values) {
+		assert solvable;
+		if (values.length < literals.length)
+			throw new IllegalArgumentException();
+
+		minisat_model_values(handle, literals, values);
+	}
+
 	protected static native long minisat_ctor();
 
 	protected static native void minisat_dtor(long handle);
 
+	protected static native long minisat_copy(long handle);
+
 	protected static native int minisat_new_var(long handle, byte polarity);
 
 	protected static native void minisat_set_decision_var(long handle, int lit,
@@ -154,9 +262,22 @@ public class JMiniSat extends Solver {
 
 	protected static native boolean minisat_add_clause(long handle, int[] lits);
 
+	protected static native boolean minisat_add_clauses(long handle,
+			IntBuffer buffer, int start, int end);
+
 	protected static native boolean minisat_solve(long handle,
 			boolean simplify, boolean turnoff);
 
+	protected static native byte minisat_solve_limited(long handle,
+			int[] assumptions, boolean simplify, boolean turnoff,
+			long conflictBudget, long propagationBudget);
+
+	protected static native void minisat_interrupt(long handle);
+
+	protected static native int minisat_solve_all(long handle, int[] projection,
+			int[] models, boolean simplify, boolean turnoff,
+			long conflictBudget, long propagationBudget);
+
 	protected static native boolean minisat_simplify(long handle);
 
 	protected static native boolean minisat_eliminate(long handle,
@@ -171,4 +292,11 @@ public class JMiniSat extends Solver {
 	protected static final byte LBOOL_UNDEF = 2;
 
 	protected static native byte minisat_model_value(long handle, int lit);
+
+	protected static native void minisat_model(long handle, int[] dest);
+
+	protected static native void minisat_model_values(long handle, int[] lits,
+			byte[] values);
+
+	protected static native int[] minisat_failed_assumptions(long handle);
 }
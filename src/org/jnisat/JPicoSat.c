@@ -45,11 +45,6 @@ static inline PicoSAT* decode(jlong h) {
 	return (PicoSAT*) (intptr_t) h;
 }
 
-JNIEXPORT jlong JNICALL Java_org_jnisat_JPicoSat_picosat_1init(JNIEnv *env,
-		jclass cls) {
-	return encode(picosat_init());
-}
-
 JNIEXPORT void JNICALL Java_org_jnisat_JPicoSat_picosat_1reset(JNIEnv *env,
 		jclass cls, jlong handle) {
 	picosat_reset(decode(handle));
@@ -80,12 +75,80 @@ JNIEXPORT jint JNICALL Java_org_jnisat_JPicoSat_picosat_1add(JNIEnv *env,
 	return picosat_add(decode(handle), lit);
 }
 
+JNIEXPORT void JNICALL Java_org_jnisat_JPicoSat_picosat_1assume(JNIEnv *env,
+		jclass cls, jlong handle, jint lit) {
+	picosat_assume(decode(handle), lit);
+}
+
 JNIEXPORT jint JNICALL Java_org_jnisat_JPicoSat_picosat_1sat(JNIEnv *env,
 		jclass cls, jlong handle, jint decision_limit) {
 	return picosat_sat(decode(handle), decision_limit);
 }
 
+JNIEXPORT void JNICALL Java_org_jnisat_JPicoSat_picosat_1set_1propagation_1budget(
+		JNIEnv *env, jclass cls, jlong handle, jlong budget) {
+	PicoSAT *picosat = decode(handle);
+	if (budget < 0)
+		picosat_set_propagation_limit(picosat, 0);
+	else
+		picosat_set_propagation_limit(picosat,
+				picosat_propagations(picosat) + budget);
+}
+
+static int interrupted(void *flag) {
+	return *(volatile jbyte*) flag;
+}
+
+JNIEXPORT jlong JNICALL Java_org_jnisat_JPicoSat_picosat_1interruptible_1init(
+		JNIEnv *env, jclass cls, jobject flag) {
+	PicoSAT *picosat = picosat_init();
+	void *state = (*env)->GetDirectBufferAddress(env, flag);
+	picosat_set_interrupt(picosat, state, interrupted);
+	return encode(picosat);
+}
+
 JNIEXPORT jint JNICALL Java_org_jnisat_JPicoSat_picosat_1deref(JNIEnv *env,
 		jclass cls, jlong handle, jint lit) {
 	return picosat_deref(decode(handle), lit);
 }
+
+JNIEXPORT void JNICALL Java_org_jnisat_JPicoSat_picosat_1model(JNIEnv *env,
+		jclass cls, jlong handle, jintArray dest) {
+	PicoSAT *picosat = decode(handle);
+	jint vars = picosat_variables(picosat);
+	jint len = (*env)->GetArrayLength(env, dest);
+
+	jint *p = (jint*) (*env)->GetPrimitiveArrayCritical(env, dest, 0);
+	for (jint i = 0; i < len; i++)
+		p[i] = i < vars ? picosat_deref(picosat, i + 1) : 0;
+	(*env)->ReleasePrimitiveArrayCritical(env, dest, p, 0);
+}
+
+JNIEXPORT void JNICALL Java_org_jnisat_JPicoSat_picosat_1deref_1all(JNIEnv *env,
+		jclass cls, jlong handle, jintArray lits, jbyteArray values) {
+	PicoSAT *picosat = decode(handle);
+	jint vars = picosat_variables(picosat);
+	jint len = (*env)->GetArrayLength(env, lits);
+
+	jint *p = (jint*) (*env)->GetPrimitiveArrayCritical(env, lits, 0);
+	jbyte *q = (jbyte*) (*env)->GetPrimitiveArrayCritical(env, values, 0);
+	for (jint i = 0; i < len; i++) {
+		jint v = p[i] > 0 ? p[i] : -p[i];
+		q[i] = v <= vars ? (jbyte) picosat_deref(picosat, p[i]) : 0;
+	}
+	(*env)->ReleasePrimitiveArrayCritical(env, values, q, 0);
+	(*env)->ReleasePrimitiveArrayCritical(env, lits, p, JNI_ABORT);
+}
+
+JNIEXPORT jintArray JNICALL Java_org_jnisat_JPicoSat_picosat_1failed_1assumptions(
+		JNIEnv *env, jclass cls, jlong handle) {
+	const int *lits = picosat_failed_assumptions(decode(handle));
+	jsize len = 0;
+	while (lits[len] != 0)
+		len++;
+
+	jintArray result = (*env)->NewIntArray(env, len);
+	if (result != NULL)
+		(*env)->SetIntArrayRegion(env, result, 0, len, lits);
+	return result;
+}
@@ -22,6 +22,8 @@
 
 package org.jnisat;
 
+import java.nio.*;
+
 public class JPicoSat extends Solver {
 	static {
 		LibDetect.loadLibrary("jpicosat");
@@ -52,12 +54,17 @@ public class JPicoSat extends Solver {
 
 	protected long handle;
 	protected boolean solvable;
+	protected int result;
+	protected int decisionLimit = -1;
+	protected long propagationBudget = -1;
+	protected final ByteBuffer interrupted = ByteBuffer.allocateDirect(1);
 
 	/**
 	 * Constructs a new PicoSAT instance and reserves some memory.
 	 */
 	public JPicoSat() {
-		handle = picosat_init();
+		// an old library without interrupts fails before allocating
+		handle = picosat_interruptible_init(interrupted);
 		solvable = false;
 		if (handle == 0)
 			throw new OutOfMemoryError();
@@ -67,7 +74,8 @@ public class JPicoSat extends Solver {
 	public void reset() {
 		if (handle != 0)
 			picosat_reset(handle);
-		handle = picosat_init();
+		handle = picosat_interruptible_init(interrupted);
+		result = 0;
 	}
 
 	@Override
@@ -79,11 +87,13 @@ public class JPicoSat extends Solver {
 
 	@Override
 	public int addVariable() {
+		result = 0;
 		return picosat_inc_max_var(handle);
 	}
 
 	@Override
 	public int addVariable(int flags) {
+		result = 0;
 		int lit = picosat_inc_max_var(handle);
 
 		if ((flags & FLAG_TRY_TRUE) != 0)
@@ -99,12 +109,14 @@ public class JPicoSat extends Solver {
 
 	@Override
 	public void addClause(int lit) {
+		result = 0;
 		picosat_add(handle, lit);
 		picosat_add(handle, 0);
 	}
 
 	@Override
 	public void addClause(int lit1, int lit2) {
+		result = 0;
 		picosat_add(handle, lit1);
 		picosat_add(handle, lit2);
 		picosat_add(handle, 0);
@@ -112,6 +124,7 @@ public class JPicoSat extends Solver {
 
 	@Override
 	public void addClause(int lit1, int lit2, int lit3) {
+		result = 0;
 		picosat_add(handle, lit1);
 		picosat_add(handle, lit2);
 		picosat_add(handle, lit3);
@@ -120,19 +133,58 @@ public class JPicoSat extends Solver {
 
 	@Override
 	public void addClause(int... literals) {
+		result = 0;
 		for (int lit : literals)
 			picosat_add(handle, lit);
 		picosat_add(handle, 0);
 	}
 
 	@Override
-	public boolean solve() {
-		int a = picosat_sat(handle, -1);
-		if (a != PICOSAT_SATISFIABLE && a != PICOSAT_UNSATISFIABLE)
-			throw new IllegalStateException();
+	public int solveLimited(int... assumptions) {
+		for (int lit : assumptions)
+			picosat_assume(handle, lit);
+
+		if (propagationBudget >= 0)
+			picosat_set_propagation_budget(handle, propagationBudget);
+
+		interrupted.put(0, (byte) 0);
+		int a = picosat_sat(handle, decisionLimit);
 
 		solvable = a == PICOSAT_SATISFIABLE;
-		return solvable;
+		result = a == PICOSAT_SATISFIABLE ? 1
+				: a == PICOSAT_UNSATISFIABLE ? -1 : 0;
+		return result;
+	}
+
+	/**
+	 * PicoSAT can only limit the number of decisions, which is used as the
+	 * conflict budget.
+	 */
+	@Override
+	public void setConflictBudget(long budget) {
+		decisionLimit = budget < 0 ? -1 : (int) Math.min(budget,
+				Integer.MAX_VALUE);
+	}
+
+	@Override
+	public void setPropagationBudget(long budget) {
+		propagationBudget = budget;
+		if (budget < 0)
+			picosat_set_propagation_budget(handle, -1);
+	}
+
+	@Override
+	public void interrupt() {
+		interrupted.put(0, (byte) 1);
+	}
+
+	@Override
+	public int[] getFailedAssumptions() {
+		// PicoSAT leaves the unsatisfiable state when the instance changes
+		if (result >= 0)
+			throw new IllegalStateException(
+					"the last solve call did not fail");
+		return picosat_failed_assumptions(handle);
 	}
 
 	@Override
@@ -141,11 +193,26 @@ public class JPicoSat extends Solver {
 		return picosat_deref(handle, literal);
 	}
 
+	@Override
+	public void getModel(int[] dest) {
+		assert solvable;
+		picosat_model(handle, dest);
+	}
+
+	@Override
+	public void getValues(int[] literals, byte[] values) {
+		assert solvable;
+		if (values.length < literals.length)
+			throw new IllegalArgumentException();
+
+		picosat_deref_all(handle, literals, values);
+	}
+
 	protected static native String picosat_version();
 
 	protected static native int picosat_api_version();
 
-	protected static native long picosat_init();
+	protected static native long picosat_interruptible_init(ByteBuffer flag);
 
 	protected static native void picosat_reset(long handle);
 
@@ -166,11 +233,23 @@ public class JPicoSat extends Solver {
 
 	protected static native int picosat_add(long handle, int lit);
 
+	protected static native void picosat_assume(long handle, int lit);
+
 	protected static final int PICOSAT_UNKNOWN = 0;
 	protected static final int PICOSAT_SATISFIABLE = 10;
 	protected static final int PICOSAT_UNSATISFIABLE = 20;
 
 	protected static native int picosat_sat(long handle, int decision_limit);
 
+	protected static native void picosat_set_propagation_budget(long handle,
+			long budget);
+
 	protected static native int picosat_deref(long handle, int lit);
+
+	protected static native void picosat_model(long handle, int[] dest);
+
+	protected static native void picosat_deref_all(long handle, int[] lits,
+			byte[] values);
+
+	protected static native int[] picosat_failed_assumptions(long handle);
 }
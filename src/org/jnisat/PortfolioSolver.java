@@ -0,0 +1,268 @@
+/**
+ * Copyright (c) 2016, Miklos Maroti, University of Szeged
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to
+ * deal in the Software without restriction, including without limitation the
+ * rights to use, copy, modify, merge, publish, distribute, sublicense, and/or
+ * sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS
+ * IN THE SOFTWARE.
+ */
+
+package org.jnisat;
+
+import java.io.*;
+import java.nio.*;
+import java.util.*;
+import java.util.concurrent.*;
+
+/**
+ * This solver runs several solvers on the same instance in parallel. All
+ * variables and clauses are added to every solver, and each solve call
+ * returns the answer of the fastest one while the others are interrupted.
+ * The threads of the portfolio are stopped by {@link #close()}.
+ */
+public class PortfolioSolver extends Solver implements Closeable {
+	protected final Solver[] solvers;
+	protected final ExecutorService executor;
+	protected Solver winner;
+	private COMiniSatPS.Exchange exchange;
+
+	/**
+	 * Constructs a new portfolio from the given solver instances, which must
+	 * not have variables yet.
+	 */
+	public PortfolioSolver(Solver... solvers) {
+		if (solvers.length == 0)
+			throw new IllegalArgumentException();
+
+		this.solvers = solvers;
+		executor = Executors.newFixedThreadPool(solvers.length,
+				new ThreadFactory() {
+					@Override
+					public Thread newThread(Runnable runnable) {
+						Thread thread = new Thread(runnable);
+						thread.setDaemon(true);
+						return thread;
+					}
+				});
+		winner = null;
+	}
+
+	/**
+	 * Constructs a new portfolio of all solvers available on this system.
+	 */
+	public PortfolioSolver() {
+		this(available("minisat", "cominisatps", "picosat", "sat4j"));
+	}
+
+	/**
+	 * Constructs a portfolio of <code>count</code> COMiniSatPS instances with
+	 * different random seeds that share their learnt clauses with literal
+	 * block distance at most <code>maxLbd</code>. The exchange is released by
+	 * {@link #close()}.
+	 */
+	public static PortfolioSolver sharing(int count, int maxLbd) {
+		COMiniSatPS.Exchange exchange = new COMiniSatPS.Exchange(1 << 16);
+		COMiniSatPS[] solvers = new COMiniSatPS[count];
+		for (int i = 0; i < count; i++) {
+			solvers[i] = new COMiniSatPS();
+			if (i > 0)
+				solvers[i].setRandomSeed(91648253.0 + i);
+			solvers[i].setExchange(exchange, maxLbd);
+		}
+		PortfolioSolver portfolio = new PortfolioSolver(solvers);
+		portfolio.exchange = exchange;
+		return portfolio;
+	}
+
+	private static Solver[] available(String... names) {
+		List<Solver> list = new ArrayList<Solver>();
+		for (String name : names) {
+			try {
+				list.add(Solver.create(name));
+			} catch (LinkageError e) {
+				continue;
+			}
+		}
+		return list.toArray(new Solver[list.size()]);
+	}
+
+	@Override
+	public void reset() {
+		for (Solver solver : solvers)
+			solver.reset();
+		winner = null;
+	}
+
+	/**
+	 * Stops the threads of this portfolio, which cannot solve afterwards.
+	 */
+	@Override
+	public void close() {
+		executor.shutdownNow();
+		if (exchange != null)
+			exchange.close();
+	}
+
+	@Override
+	public int addVariable(int flags) {
+		int lit = solvers[0].addVariable(flags);
+		for (int i = 1; i < solvers.length; i++) {
+			int other = solvers[i].addVariable(flags);
+			assert other == lit;
+		}
+		return lit;
+	}
+
+	@Override
+	public void addClause(int lit) {
+		for (Solver solver : solvers)
+			solver.addClause(lit);
+	}
+
+	@Override
+	public void addClause(int lit1, int lit2) {
+		for (Solver solver : solvers)
+			solver.addClause(lit1, lit2);
+	}
+
+	@Override
+	public void addClause(int lit1, int lit2, int lit3) {
+		for (Solver solver : solvers)
+			solver.addClause(lit1, lit2, lit3);
+	}
+
+	@Override
+	public void addClause(int... literals) {
+		for (Solver solver : solvers)
+			solver.addClause(literals);
+	}
+
+	@Override
+	public void addClauses(IntBuffer buffer) {
+		for (Solver solver : solvers)
+			solver.addClauses(buffer.duplicate());
+		buffer.position(buffer.limit());
+	}
+
+	@Override
+	public int solveLimited(final int... assumptions) {
+		CompletionService<Solver> service;
+		service = new ExecutorCompletionService<Solver>(executor);
+		final Map<Solver, Integer> results;
+		results = new ConcurrentHashMap<Solver, Integer>();
+		List<Future<Solver>> futures = new ArrayList<Future<Solver>>();
+
+		for (final Solver solver : solvers)
+			futures.add(service.submit(new Callable<Solver>() {
+				@Override
+				public Solver call() {
+					results.put(solver, solver.solveLimited(assumptions));
+					return solver;
+				}
+			}));
+
+		winner = null;
+		RuntimeException error = null;
+		try {
+			for (int i = 0; i < solvers.length && winner == null; i++) {
+				Solver solver = take(service);
+				if (results.get(solver) != 0)
+					winner = solver;
+			}
+		} catch (RuntimeException e) {
+			error = e;
+		}
+
+		// the solvers must be idle before the next call, and an interrupt
+		// can be missed if it arrives before a solver has started
+		for (Future<Solver> future : futures) {
+			while (!future.isDone()) {
+				for (Solver solver : solvers)
+					if (!results.containsKey(solver))
+						solver.interrupt();
+				try {
+					future.get(10, TimeUnit.MILLISECONDS);
+				} catch (TimeoutException e) {
+					continue;
+				} catch (Exception e) {
+					break;
+				}
+			}
+		}
+
+		if (error != null)
+			throw error;
+		return winner != null ? results.get(winner) : 0;
+	}
+
+	private static Solver take(CompletionService<Solver> service) {
+		try {
+			return service.take().get();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException(e);
+		} catch (ExecutionException e) {
+			Throwable cause = e.getCause();
+			if (cause instanceof RuntimeException)
+				throw (RuntimeException) cause;
+			throw new IllegalStateException(cause);
+		}
+	}
+
+	@Override
+	public void setConflictBudget(long budget) {
+		for (Solver solver : solvers)
+			solver.setConflictBudget(budget);
+	}
+
+	@Override
+	public void setPropagationBudget(long budget) {
+		for (Solver solver : solvers)
+			solver.setPropagationBudget(budget);
+	}
+
+	@Override
+	public void interrupt() {
+		for (Solver solver : solvers)
+			solver.interrupt();
+	}
+
+	@Override
+	public int[] getFailedAssumptions() {
+		if (winner == null)
+			throw new IllegalStateException(
+					"the last solve call did not fail");
+		return winner.getFailedAssumptions();
+	}
+
+	@Override
+	public int getValue(int literal) {
+		assert winner != null;
+		return winner.getValue(literal);
+	}
+
+	@Override
+	public void getModel(int[] dest) {
+		assert winner != null;
+		winner.getModel(dest);
+	}
+
+	@Override
+	public void getValues(int[] literals, byte[] values) {
+		assert winner != null;
+		winner.getValues(literals, values);
+	}
+}
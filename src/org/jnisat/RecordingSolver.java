@@ -0,0 +1,197 @@
+/**
+ * Copyright (c) 2016, Miklos Maroti, University of Szeged
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to
+ * deal in the Software without restriction, including without limitation the
+ * rights to use, copy, modify, merge, publish, distribute, sublicense, and/or
+ * sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS
+ * IN THE SOFTWARE.
+ */
+
+package org.jnisat;
+
+import java.io.*;
+import java.nio.*;
+import java.nio.channels.*;
+
+import org.sat4j.tools.DimacsWriter;
+
+/**
+ * This solver forwards all calls to another solver, and records the
+ * variables and clauses in Dimacs format. The assumptions of each solve call
+ * are recorded as comment lines of the form <code>c solve lits 0</code>, and
+ * {@link #solveAll(int[], int[])} records its blocking clauses. The I/O errors
+ * are thrown as {@link UncheckedIOException}, and the record is complete only
+ * after {@link #close()}.
+ */
+public class RecordingSolver extends Solver implements Closeable {
+	protected final Solver solver;
+	private final DimacsWriter writer;
+
+	/**
+	 * Constructs a recording solver. The header is patched at the beginning
+	 * of the record if the channel is seekable (a file), otherwise it is the
+	 * last line.
+	 *
+	 * @param solver
+	 *            the solver the calls are forwarded to, which should not have
+	 *            variables yet
+	 * @param channel
+	 *            the channel the variables and clauses are recorded to
+	 */
+	public RecordingSolver(Solver solver, WritableByteChannel channel) {
+		this.solver = solver;
+		this.writer = new DimacsWriter(channel);
+	}
+
+	/**
+	 * Constructs a recording solver, whose header is the last line of the
+	 * record unless the stream is a {@link FileOutputStream} that is not in
+	 * append mode.
+	 *
+	 * @param solver
+	 *            the solver the calls are forwarded to, which should not have
+	 *            variables yet
+	 * @param out
+	 *            the stream the variables and clauses are recorded to
+	 */
+	public RecordingSolver(Solver solver, OutputStream out) {
+		this.solver = solver;
+		this.writer = new DimacsWriter(out);
+	}
+
+	/**
+	 * Writes the header of the record and closes it.
+	 */
+	@Override
+	public void close() throws IOException {
+		writer.close();
+	}
+
+	/**
+	 * The record cannot be reset, so this method is not supported.
+	 */
+	@Override
+	public void reset() {
+		throw new UnsupportedOperationException();
+	}
+
+	@Override
+	public int addVariable(int flags) {
+		int lit = solver.addVariable(flags);
+		writer.newVar(lit);
+		return lit;
+	}
+
+	@Override
+	public void addClause(int lit) {
+		solver.addClause(lit);
+		try {
+			writer.writeClause(lit);
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	@Override
+	public void addClause(int lit1, int lit2) {
+		solver.addClause(lit1, lit2);
+		try {
+			writer.writeClause(lit1, lit2);
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	@Override
+	public void addClause(int lit1, int lit2, int lit3) {
+		solver.addClause(lit1, lit2, lit3);
+		try {
+			writer.writeClause(lit1, lit2, lit3);
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	@Override
+	public void addClause(int... literals) {
+		solver.addClause(literals);
+		try {
+			writer.writeClause(literals);
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	@Override
+	public void addClauses(IntBuffer buffer) {
+		IntBuffer copy = buffer.duplicate();
+		solver.addClauses(buffer);
+		try {
+			writer.writeClauses(copy);
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	@Override
+	public int solveLimited(int... assumptions) {
+		StringBuilder line = new StringBuilder("solve");
+		for (int lit : assumptions)
+			line.append(' ').append(lit);
+		line.append(" 0");
+		try {
+			writer.writeComment(line.toString());
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+		return solver.solveLimited(assumptions);
+	}
+
+	@Override
+	public void setConflictBudget(long budget) {
+		solver.setConflictBudget(budget);
+	}
+
+	@Override
+	public void setPropagationBudget(long budget) {
+		solver.setPropagationBudget(budget);
+	}
+
+	@Override
+	public void interrupt() {
+		solver.interrupt();
+	}
+
+	@Override
+	public int[] getFailedAssumptions() {
+		return solver.getFailedAssumptions();
+	}
+
+	@Override
+	public int getValue(int literal) {
+		return solver.getValue(literal);
+	}
+
+	@Override
+	public void getModel(int[] dest) {
+		solver.getModel(dest);
+	}
+
+	@Override
+	public void getValues(int[] literals, byte[] values) {
+		solver.getValues(literals, values);
+	}
+}
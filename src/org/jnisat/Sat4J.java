@@ -22,16 +22,32 @@
 
 package org.jnisat;
 
+import java.util.*;
+
 import org.sat4j.core.*;
 import org.sat4j.minisat.*;
+import org.sat4j.minisat.core.DataStructureFactory;
+import org.sat4j.minisat.core.Inprocessor;
 import org.sat4j.specs.*;
 
 public class Sat4J extends Solver {
 	protected final ISolver solver;
+	private final Inprocessor inprocessor;
 	protected boolean solvable;
+	protected int result;
+
+	// the failed assumptions when they contain a literal and its negation
+	private int[] complementary;
+
+	// reused for all clauses and assumptions, sat4j copies them
+	private final VecInt buffer = new VecInt();
 
 	public Sat4J() {
-		solver = SolverFactory.newDefault();
+		org.sat4j.minisat.core.Solver<DataStructureFactory> s = SolverFactory
+				.newDefaultArena();
+		inprocessor = new Inprocessor();
+		s.setInprocessor(inprocessor);
+		solver = s;
 		solvable = true;
 	}
 
@@ -39,47 +55,132 @@ public class Sat4J extends Solver {
 	public void reset() {
 		solver.reset();
 		solvable = true;
+		result = 0;
+		complementary = null;
 	}
 
 	@Override
 	public int addVariable(int flags) {
-		return solver.nextFreeVarId(true);
+		int var = solver.nextFreeVarId(true);
+		if ((flags & FLAG_ELIMINATE) != 0)
+			inprocessor.setEliminable(var, true);
+		return var;
 	}
 
 	@Override
 	public void addClause(int lit) {
-		addClause(new int[] { lit });
+		buffer.clear();
+		buffer.push(lit);
+		addClause(buffer);
 	}
 
 	@Override
 	public void addClause(int lit1, int lit2) {
-		addClause(new int[] { lit1, lit2 });
+		buffer.clear();
+		buffer.push(lit1).push(lit2);
+		addClause(buffer);
 	}
 
 	@Override
 	public void addClause(int lit1, int lit2, int lit3) {
-		addClause(new int[] { lit1, lit2, lit3 });
+		buffer.clear();
+		buffer.push(lit1).push(lit2).push(lit3);
+		addClause(buffer);
 	}
 
 	@Override
 	public void addClause(int... literals) {
+		buffer.clear();
+		for (int lit : literals)
+			buffer.push(lit);
+		addClause(buffer);
+	}
+
+	private void addClause(IVecInt literals) {
 		try {
-			solver.addClause(new VecInt(literals));
+			solver.addClause(literals);
 		} catch (ContradictionException e) {
 			solvable = false;
 		}
 	}
 
 	@Override
-	public boolean solve() {
-		if (solvable)
-			try {
-				solvable = solver.isSatisfiable();
-			} catch (TimeoutException e) {
-				throw new RuntimeException(e.getMessage());
+	public int solveLimited(int... assumptions) {
+		result = -1;
+		complementary = null;
+		if (!solvable)
+			return -1;
+
+		// sat4j explains these by only one of the two literals
+		complementary = findComplementary(assumptions);
+		if (complementary != null)
+			return -1;
+
+		boolean sat;
+		try {
+			if (assumptions.length == 0)
+				sat = solver.isSatisfiable();
+			else {
+				buffer.clear();
+				for (int lit : assumptions)
+					buffer.push(lit);
+				sat = solver.isSatisfiable(buffer);
 			}
+		} catch (TimeoutException e) {
+			result = 0;
+			return 0;
+		}
+
+		// failing assumptions do not make the instance unsolvable
+		if (sat || assumptions.length == 0)
+			solvable = sat;
+		result = sat ? 1 : -1;
+		return result;
+	}
+
+	private static int[] findComplementary(int[] assumptions) {
+		int[] lits = assumptions.clone();
+		Arrays.sort(lits);
+		for (int i = 0; i < lits.length && lits[i] < 0; i++)
+			if (Arrays.binarySearch(lits, -lits[i]) >= 0)
+				return new int[] { lits[i], -lits[i] };
+		return null;
+	}
+
+	@Override
+	public void setConflictBudget(long budget) {
+		if (budget < 0)
+			solver.setTimeoutMs(Integer.MAX_VALUE);
+		else
+			solver.setTimeoutOnConflicts((int) Math.min(budget,
+					Integer.MAX_VALUE));
+	}
+
+	@Override
+	public void setPropagationBudget(long budget) {
+		((org.sat4j.minisat.core.Solver<?>) solver)
+				.setPropagationBudget(budget);
+	}
+
+	@Override
+	public void interrupt() {
+		solver.expireTimeout();
+	}
+
+	@Override
+	public int[] getFailedAssumptions() {
+		if (result >= 0)
+			throw new IllegalStateException(
+					"the last solve call did not fail");
+		if (complementary != null)
+			return complementary.clone();
+		IVecInt core = solvable ? solver.unsatExplanation() : null;
+		if (core == null)
+			return NO_ASSUMPTIONS;
 
-		return solvable;
+		int[] lits = new int[core.size()];
+		core.copyTo(lits);
+		return lits;
 	}
 
 	@Override
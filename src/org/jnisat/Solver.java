@@ -22,6 +22,9 @@
 
 package org.jnisat;
 
+import java.nio.*;
+import java.util.*;
+
 /**
  * This is the base class of all SAT solvers. All variables are numbered
  * starting from 1, and their negated literals are negative values.
@@ -43,6 +46,10 @@ public abstract class Solver {
 			return new COMiniSatPS();
 		else if (what.equals("sat4j"))
 			return new Sat4J();
+		else if (what.equals("portfolio"))
+			return new PortfolioSolver();
+		else if (what.equals("cube"))
+			return new CubeSolver();
 		else
 			throw new IllegalArgumentException();
 	}
@@ -52,6 +59,19 @@ public abstract class Solver {
 	 */
 	public abstract void reset();
 
+	/**
+	 * Returns a new solver with the same variables and clauses as this one,
+	 * which can be used independently of this instance. This is not supported
+	 * by all solvers.
+	 *
+	 * @return a new solver
+	 * @throws UnsupportedOperationException
+	 *             if the solver cannot be copied
+	 */
+	public Solver copy() {
+		throw new UnsupportedOperationException();
+	}
+
 	/**
 	 * If the variable becomes a decision variable, then try the true value
 	 * first.
@@ -133,12 +153,186 @@ public abstract class Solver {
 	 */
 	public abstract void addClause(int... literals);
 
+	/**
+	 * Allocates a direct buffer in native byte order that can be passed to
+	 * {@link #addClauses(IntBuffer)} without copying.
+	 *
+	 * @param capacity
+	 *            the number of literals (including the terminating zeros) the
+	 *            buffer can hold
+	 * @return a new empty clause buffer
+	 */
+	public static IntBuffer allocateClauseBuffer(int capacity) {
+		return ByteBuffer.allocateDirect(capacity * 4)
+				.order(ByteOrder.nativeOrder()).asIntBuffer();
+	}
+
+	/**
+	 * Adds a batch of clauses to the solver. The remaining elements of the
+	 * buffer are the literals of the clauses, each clause terminated by a
+	 * zero. The native solvers read direct buffers in native byte order (see
+	 * {@link #allocateClauseBuffer(int)}) in a single call, all other buffers
+	 * are added clause by clause. The position of the buffer is advanced to
+	 * its limit.
+	 *
+	 * @param buffer
+	 *            the zero terminated literals of the clauses
+	 */
+	public void addClauses(IntBuffer buffer) {
+		int end = buffer.limit();
+		if (end > buffer.position() && buffer.get(end - 1) != 0)
+			throw new IllegalArgumentException("unterminated clause");
+
+		int[] literals = new int[16];
+		int size = 0;
+		while (buffer.hasRemaining()) {
+			int lit = buffer.get();
+			if (lit != 0) {
+				if (size >= literals.length)
+					literals = Arrays.copyOf(literals, 2 * size);
+				literals[size++] = lit;
+			} else {
+				addClause(Arrays.copyOf(literals, size));
+				size = 0;
+			}
+		}
+	}
+
+	/**
+	 * @return <code>true</code> if the buffer can be read directly by the
+	 *         native adapter libraries
+	 */
+	protected static boolean isNativeBuffer(IntBuffer buffer) {
+		return buffer.isDirect() && buffer.order() == ByteOrder.nativeOrder();
+	}
+
 	/**
 	 * Solves the currently added variables and clauses.
 	 *
 	 * @return <code>true</code> if the instance is solvable
 	 */
-	public abstract boolean solve();
+	public boolean solve() {
+		return solve(NO_ASSUMPTIONS);
+	}
+
+	/**
+	 * Solves the currently added variables and clauses under the given
+	 * assumptions. The assumptions are only in effect during this call, the
+	 * learnt clauses are kept for later calls. Assumed variables must not be
+	 * eliminated, so they should not be created with {@link #FLAG_ELIMINATE}.
+	 * Use {@link #solveLimited(int...)} if the call can be interrupted.
+	 *
+	 * @param assumptions
+	 *            the list of literals that are assumed to be true
+	 * @return <code>true</code> if the instance is solvable with all
+	 *         assumptions being true
+	 */
+	public boolean solve(int... assumptions) {
+		int a = solveLimited(assumptions);
+		if (a == 0)
+			throw new IllegalStateException("solver interrupted");
+		return a > 0;
+	}
+
+	protected static final int[] NO_ASSUMPTIONS = new int[0];
+
+	/**
+	 * Solves the currently added variables and clauses under the given
+	 * assumptions within the budgets set by {@link #setConflictBudget(long)}
+	 * and {@link #setPropagationBudget(long)}, or until {@link #interrupt()}
+	 * is called.
+	 *
+	 * @param assumptions
+	 *            the list of literals that are assumed to be true
+	 * @return positive if the instance is solvable with all assumptions being
+	 *         true, negative if it is not, and zero if the solver ran out of
+	 *         budget or was interrupted
+	 */
+	public abstract int solveLimited(int... assumptions);
+
+	/**
+	 * Limits the number of conflicts in each subsequent call of
+	 * {@link #solveLimited(int...)}.
+	 *
+	 * @param budget
+	 *            the maximum number of conflicts, or negative for no limit
+	 */
+	public abstract void setConflictBudget(long budget);
+
+	/**
+	 * Limits the number of propagations in each subsequent call of
+	 * {@link #solveLimited(int...)}.
+	 *
+	 * @param budget
+	 *            the maximum number of propagations, or negative for no limit
+	 */
+	public abstract void setPropagationBudget(long budget);
+
+	/**
+	 * Stops the running {@link #solveLimited(int...)} call as soon as
+	 * possible. This method can be called from any thread, but it has no
+	 * effect on calls that start later.
+	 */
+	public abstract void interrupt();
+
+	/**
+	 * Enumerates the solutions of the instance projected to the given
+	 * variables. Each found solution is stored in the next
+	 * <code>projection.length</code> elements of the models array as a list of
+	 * literals (the variable if it is true, its negation otherwise), and then
+	 * it is excluded by a permanently added blocking clause over the
+	 * projection variables. The projection variables must not be eliminated.
+	 * Calling this method repeatedly enumerates all projected solutions in
+	 * batches. The native solvers find a whole batch in a single call. The
+	 * budgets set by {@link #setConflictBudget(long)} and
+	 * {@link #setPropagationBudget(long)} apply to the whole batch, and
+	 * {@link #interrupt()} stops it, in which case fewer solutions can be
+	 * returned even if there are more.
+	 *
+	 * @param projection
+	 *            the non-empty list of variables the solutions are projected to
+	 * @param models
+	 *            the array where the found solutions are stored
+	 * @return the number of solutions found, which is less than
+	 *         <code>models.length / projection.length</code> only if there are
+	 *         no more solutions or the batch was interrupted
+	 */
+	public int solveAll(int[] projection, int[] models) {
+		if (projection.length == 0)
+			throw new IllegalArgumentException();
+
+		int count = models.length / projection.length;
+		int[] clause = new int[projection.length];
+
+		int n = 0;
+		while (n < count && solveLimited(NO_ASSUMPTIONS) > 0) {
+			for (int i = 0; i < projection.length; i++) {
+				int var = Math.abs(projection[i]);
+				int lit = getValue(var) > 0 ? var : -var;
+				models[n * projection.length + i] = lit;
+				clause[i] = -lit;
+			}
+
+			addClause(clause);
+			n += 1;
+		}
+
+		return n;
+	}
+
+	/**
+	 * Returns the assumptions responsible for the last unsuccessful call of
+	 * {@link #solve(int...)}. The returned literals are a subset of the
+	 * assumptions, and the instance is not solvable under any set of
+	 * assumptions containing them.
+	 *
+	 * @return the list of failed assumptions, which is empty if the instance
+	 *         is not solvable even without assumptions
+	 * @throws IllegalStateException
+	 *             if the last solve call did not fail, or with PicoSAT, if
+	 *             the instance was changed since then
+	 */
+	public abstract int[] getFailedAssumptions();
 
 	/**
 	 * Queries the value of a literal in the solution.
@@ -149,4 +343,37 @@ public abstract class Solver {
 	 *         and zero if the value can be either true or false
 	 */
 	public abstract int getValue(int literal);
+
+	/**
+	 * Queries the values of the first variables in the solution. This is
+	 * equivalent to calling {@link #getValue(int)} for each variable, but the
+	 * native solvers copy the whole model in a single call.
+	 *
+	 * @param dest
+	 *            the array whose element at index <code>i</code> is set to the
+	 *            value of the variable <code>i + 1</code>
+	 */
+	public void getModel(int[] dest) {
+		for (int i = 0; i < dest.length; i++)
+			dest[i] = getValue(i + 1);
+	}
+
+	/**
+	 * Queries the values of a list of literals in the solution. This is
+	 * equivalent to calling {@link #getValue(int)} for each literal, but the
+	 * native solvers look up all literals in a single call.
+	 *
+	 * @param literals
+	 *            the list of literals to be queried
+	 * @param values
+	 *            the array where the value (positive, negative or zero) of each
+	 *            literal is stored
+	 */
+	public void getValues(int[] literals, byte[] values) {
+		if (values.length < literals.length)
+			throw new IllegalArgumentException();
+
+		for (int i = 0; i < literals.length; i++)
+			values[i] = (byte) getValue(literals[i]);
+	}
 }
@@ -72,6 +72,19 @@ public class Validate {
 		return a;
 	}
 
+	public int solveall(int batch) {
+		int[] models = new int[batch * table.length];
+
+		int a = 0;
+		int n;
+		do {
+			n = sat.solveAll(table, models);
+			a += n;
+		} while (n == batch);
+
+		return a;
+	}
+
 	public static void run(String name) {
 		System.out.print(name + ": ");
 
@@ -90,10 +103,22 @@ public class Validate {
 		int count = validate.findall();
 		time = System.currentTimeMillis() - time;
 
-		if (count != 4140)
+		if (count != 4140) {
 			System.out.println("incorrect answer " + count);
+			return;
+		}
+
+		long time2 = System.currentTimeMillis();
+		validate = new Validate(Solver.create(name), 8);
+		validate.generate();
+		count = validate.solveall(1000);
+		time2 = System.currentTimeMillis() - time2;
+
+		if (count != 4140)
+			System.out.println("incorrect solveAll answer " + count);
 		else
-			System.out.println(time + " milliseconds");
+			System.out.println(time + " milliseconds, " + time2
+					+ " milliseconds with solveAll");
 	}
 
 	public static void main(String[] args) {
@@ -102,5 +127,7 @@ public class Validate {
 		run("picosat");
 		run("cominisatps");
 		run("sat4j");
+		run("portfolio");
+		run("cube");
 	}
 }
@@ -19,6 +19,7 @@
 package org.sat4j.minisat;
 
 import org.sat4j.core.ASolverFactory;
+import org.sat4j.minisat.constraints.MixedDataStructureArena;
 import org.sat4j.minisat.constraints.MixedDataStructureDanielHT;
 import org.sat4j.minisat.constraints.MixedDataStructureDanielWL;
 import org.sat4j.minisat.constraints.MixedDataStructureSingleWL;
@@ -36,6 +37,7 @@ import org.sat4j.minisat.orders.RSATLastLearnedClausesPhaseSelectionStrategy;
 import org.sat4j.minisat.orders.RSATPhaseSelectionStrategy;
 import org.sat4j.minisat.orders.RandomWalkDecorator;
 import org.sat4j.minisat.orders.VarOrderHeap;
+import org.sat4j.minisat.orders.VarOrderVMTF;
 import org.sat4j.minisat.restarts.ArminRestarts;
 import org.sat4j.minisat.restarts.LubyRestarts;
 import org.sat4j.minisat.restarts.MiniSATRestarts;
@@ -189,6 +191,54 @@ public final class SolverFactory extends ASolverFactory<ISolver> {
 		return newBestCurrentSolverConfiguration(new MixedDataStructureDanielHT());
 	}
 
+	/**
+	 * The original binary clauses of this solver are kept as implications
+	 * between literals, so addClause returns null for them and they cannot be
+	 * removed with removeConstr. Use {@link #newDefaultArena(boolean)} if the
+	 * constraints are removed later, like in ConstrGroup or the MUS and
+	 * optimization launchers.
+	 * 
+	 * @return the default solver configuration, but keeping the literals of
+	 *         the long clauses in a single int array, the learned clauses in
+	 *         LBD tiers, and reusing the trail after restarts and long
+	 *         backjumps.
+	 */
+	public static Solver<DataStructureFactory> newDefaultArena() {
+		return newDefaultArena(false);
+	}
+
+	/**
+	 * @param removable
+	 *            true if the original binary clauses should be kept as
+	 *            constraints, so that every clause can be removed with
+	 *            removeConstr
+	 * @return the {@link #newDefaultArena()} configuration, with removable
+	 *         binary clauses if requested
+	 */
+	public static Solver<DataStructureFactory> newDefaultArena(
+			boolean removable) {
+		DataStructureFactory dsf = new MixedDataStructureArena(!removable);
+		Solver<DataStructureFactory> solver = newMiniLearningHeap(dsf);
+		solver.setSimplifier(solver.EXPENSIVE_SIMPLIFICATION);
+		solver.setLearnedConstraintsDeletionStrategy(solver.tiered);
+		solver.setTrailReuse(true);
+		solver.setChronologicalBacktracking(100);
+		solver.setOrder(new VarOrderHeap(new RSATPhaseSelectionStrategy()));
+		solver.setRestartStrategy(new ArminRestarts());
+		solver.setSearchParams(new SearchParams(1.1, 100));
+		return solver;
+	}
+
+	/**
+	 * @return the {@link #newDefaultArena()} configuration, but choosing the
+	 *         decision variables by a move to front queue instead of a heap.
+	 */
+	public static Solver<DataStructureFactory> newDefaultArenaVMTF() {
+		Solver<DataStructureFactory> solver = newDefaultArena();
+		solver.setOrder(new VarOrderVMTF(new RSATPhaseSelectionStrategy()));
+		return solver;
+	}
+
 	/**
 	 * 
 	 * @since 2.2
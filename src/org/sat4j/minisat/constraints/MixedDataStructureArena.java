@@ -0,0 +1,124 @@
+/*******************************************************************************
+ * SAT4J: a SATisfiability library for Java Copyright (C) 2004-2008 Daniel Le Berre
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Alternatively, the contents of this file may be used under the terms of
+ * either the GNU Lesser General Public License Version 2.1 or later (the
+ * "LGPL"), in which case the provisions of the LGPL are applicable instead
+ * of those above. If you wish to allow use of your version of this file only
+ * under the terms of the LGPL, and not to allow others to use your version of
+ * this file under the terms of the EPL, indicate your decision by deleting
+ * the provisions above and replace them with the notice and other provisions
+ * required by the LGPL. If you do not delete the provisions above, a recipient
+ * may use your version of this file under the terms of the EPL or the LGPL.
+ * 
+ * Based on the original MiniSat specification from:
+ * 
+ * An extensible SAT solver. Niklas Een and Niklas Sorensson. Proceedings of the
+ * Sixth International Conference on Theory and Applications of Satisfiability
+ * Testing, LNCS 2919, pp 502-518, 2003.
+ *
+ * See www.minisat.se for the original solver in C++.
+ * 
+ *******************************************************************************/
+package org.sat4j.minisat.constraints;
+
+import static org.sat4j.core.LiteralsUtils.neg;
+
+import org.sat4j.minisat.constraints.card.AtLeast;
+import org.sat4j.minisat.constraints.cnf.ClauseArena;
+import org.sat4j.minisat.constraints.cnf.Clauses;
+import org.sat4j.minisat.constraints.cnf.LearntArenaClause;
+import org.sat4j.minisat.constraints.cnf.LearntBinaryClause;
+import org.sat4j.minisat.constraints.cnf.Lits;
+import org.sat4j.minisat.constraints.cnf.OriginalArenaClause;
+import org.sat4j.minisat.constraints.cnf.OriginalBinaryClause;
+import org.sat4j.minisat.constraints.cnf.UnitClause;
+import org.sat4j.minisat.core.Constr;
+import org.sat4j.minisat.core.ILits;
+import org.sat4j.specs.ContradictionException;
+import org.sat4j.specs.IVecInt;
+
+/**
+ * Same as {@link MixedDataStructureDanielWL}, but the literals of the clauses
+ * of size at least three are kept in a single {@link ClauseArena} to improve
+ * the memory locality of unit propagation. By default the original binary
+ * clauses are kept implicitly in the vocabulary, see
+ * {@link ILits#implies(int, int)}, so no constraint is returned for them,
+ * they cannot be removed from the solver and are not counted as constraints.
+ */
+public class MixedDataStructureArena extends AbstractDataStructureFactory {
+
+	private static final long serialVersionUID = 1L;
+
+	private final ClauseArena arena = new ClauseArena();
+
+	private final boolean implicitBinaries;
+
+	public MixedDataStructureArena() {
+		this(true);
+	}
+
+	/**
+	 * @param implicitBinaries
+	 *            false if the original binary clauses should be kept as
+	 *            constraints, so that they can be removed from the solver
+	 */
+	public MixedDataStructureArena(boolean implicitBinaries) {
+		this.implicitBinaries = implicitBinaries;
+	}
+
+	@Override
+	public Constr createCardinalityConstraint(IVecInt literals, int degree)
+			throws ContradictionException {
+		return AtLeast.atLeastNew(solver, getVocabulary(), literals, degree);
+	}
+
+	public Constr createClause(IVecInt literals) throws ContradictionException {
+		IVecInt v = Clauses.sanityCheck(literals, getVocabulary(), solver);
+		if (v == null) {
+			// tautological clause
+			return null;
+		}
+		if (v.size() == 1) {
+			return new UnitClause(v.last());
+		}
+		if (v.size() == 2 && !implicitBinaries) {
+			return OriginalBinaryClause.brandNewClause(solver, getVocabulary(),
+					v);
+		}
+		if (v.size() == 2) {
+			// no constraint object, see ILits#implies()
+			ILits voc = getVocabulary();
+			voc.implies(neg(v.get(0)), v.get(1));
+			voc.implies(neg(v.get(1)), v.get(0));
+			return null;
+		}
+		return OriginalArenaClause.brandNewClause(solver, arena,
+				getVocabulary(), v);
+	}
+
+	public Constr createUnregisteredClause(IVecInt literals) {
+		if (literals.size() == 1) {
+			return new UnitClause(literals.last());
+		}
+		if (literals.size() == 2) {
+			return new LearntBinaryClause(literals, getVocabulary());
+		}
+		return LearntArenaClause.newClause(arena, literals, getVocabulary());
+	}
+
+	@Override
+	public void reset() {
+		arena.clear();
+	}
+
+	@Override
+	protected ILits createLits() {
+		return new Lits();
+	}
+}
@@ -0,0 +1,231 @@
+/*******************************************************************************
+ * SAT4J: a SATisfiability library for Java Copyright (C) 2004-2008 Daniel Le Berre
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Alternatively, the contents of this file may be used under the terms of
+ * either the GNU Lesser General Public License Version 2.1 or later (the
+ * "LGPL"), in which case the provisions of the LGPL are applicable instead
+ * of those above. If you wish to allow use of your version of this file only
+ * under the terms of the LGPL, and not to allow others to use your version of
+ * this file under the terms of the EPL, indicate your decision by deleting
+ * the provisions above and replace them with the notice and other provisions
+ * required by the LGPL. If you do not delete the provisions above, a recipient
+ * may use your version of this file under the terms of the EPL or the LGPL.
+ * 
+ * Based on the original MiniSat specification from:
+ * 
+ * An extensible SAT solver. Niklas Een and Niklas Sorensson. Proceedings of the
+ * Sixth International Conference on Theory and Applications of Satisfiability
+ * Testing, LNCS 2919, pp 502-518, 2003.
+ *
+ * See www.minisat.se for the original solver in C++.
+ * 
+ *******************************************************************************/
+package org.sat4j.minisat.constraints.cnf;
+
+import java.io.Serializable;
+
+import org.sat4j.minisat.core.Constr;
+import org.sat4j.minisat.core.ILits;
+import org.sat4j.minisat.core.UnitPropagationListener;
+import org.sat4j.specs.IVecInt;
+
+/**
+ * Lazy data structure for clause using Watched Literals, keeping the literals
+ * in a shared {@link ClauseArena} instead of a private array.
+ */
+public abstract class ArenaClause implements Constr, Serializable {
+
+	private static final long serialVersionUID = 1L;
+
+	protected double activity;
+
+	/**
+	 * The offset of the header of the clause in the arena, updated when the
+	 * arena is compacted.
+	 */
+	protected int ref;
+
+	protected final ClauseArena arena;
+
+	protected final ILits voc;
+
+	/**
+	 * Creates a new basic clause
+	 * 
+	 * @param arena
+	 *            the arena storing the literals
+	 * @param voc
+	 *            the vocabulary of the formula
+	 * @param ps
+	 *            A VecInt that WILL BE EMPTY after calling that method.
+	 */
+	public ArenaClause(ClauseArena arena, IVecInt ps, ILits voc) {
+		this.arena = arena;
+		this.voc = voc;
+		ref = arena.alloc(this, ps);
+		activity = 0;
+	}
+
+	public void calcReason(int p, IVecInt outReason) {
+		final int[] mem = arena.memory;
+		final int end = ref + 1 + size();
+		for (int i = (p == ILits.UNDEFINED) ? ref + 1 : ref + 2; i < end; i++) {
+			assert voc.isFalsified(mem[i]);
+			outReason.push(mem[i] ^ 1);
+		}
+	}
+
+	public void remove(UnitPropagationListener upl) {
+		final int[] mem = arena.memory;
+		voc.unwatch(mem[ref + 1] ^ 1, this);
+		voc.unwatch(mem[ref + 2] ^ 1, this);
+		arena.free(ref);
+	}
+
+	public boolean simplify() {
+		final int[] mem = arena.memory;
+		final int end = ref + 1 + size();
+		for (int i = ref + 1; i < end; i++) {
+			if (voc.isSatisfied(mem[i])) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	public boolean propagate(UnitPropagationListener s, int p) {
+		final int[] mem = arena.memory;
+		final int first = ref + 1;
+		final int end = first + (mem[ref] >> ClauseArena.SHIFT);
+		// mem[first + 1] must contain a falsified literal
+		if (mem[first] == (p ^ 1)) {
+			mem[first] = mem[first + 1];
+			mem[first + 1] = p ^ 1;
+		}
+		// the other watched literal becomes the blocker if satisfied
+		if (voc.isSatisfied(mem[first])) {
+			voc.watch(p, this, mem[first]);
+			return true;
+		}
+		int previous = p ^ 1, tmp;
+		// look for new literal to watch: applying move to front strategy
+		for (int i = first + 2; i < end; i++) {
+			if (!voc.isFalsified(mem[i])) {
+				mem[first + 1] = mem[i];
+				mem[i] = previous;
+				voc.watch(mem[first + 1] ^ 1, this, mem[first]);
+				return true;
+			} else {
+				tmp = previous;
+				previous = mem[i];
+				mem[i] = tmp;
+			}
+		}
+		// the clause is now either unit or null
+		// move back the literals to their initial position
+		for (int i = first + 2; i < end; i++) {
+			mem[i - 1] = mem[i];
+		}
+		mem[end - 1] = previous;
+		voc.watch(p, this, mem[first]);
+		// propagates first watched literal
+		return s.enqueue(mem[first], this);
+	}
+
+	public boolean locked() {
+		return voc.getReason(arena.memory[ref + 1]) == this;
+	}
+
+	public double getActivity() {
+		return activity;
+	}
+
+	@Override
+	public String toString() {
+		StringBuffer stb = new StringBuffer();
+		for (int i = 0; i < size(); i++) {
+			stb.append(Lits.toString(get(i)));
+			stb.append("["); //$NON-NLS-1$
+			stb.append(voc.valueToString(get(i)));
+			stb.append("]"); //$NON-NLS-1$
+			stb.append(" "); //$NON-NLS-1$
+		}
+		return stb.toString();
+	}
+
+	/**
+	 * Returns the i-th literal of the clause. This order changes during the
+	 * search.
+	 * 
+	 * @param i
+	 *            the index of the literal
+	 * @return the literal
+	 */
+	public int get(int i) {
+		return arena.memory[ref + 1 + i];
+	}
+
+	public void rescaleBy(double d) {
+		activity *= d;
+	}
+
+	public int size() {
+		return arena.memory[ref] >> ClauseArena.SHIFT;
+	}
+
+	public void assertConstraint(UnitPropagationListener s) {
+		boolean ret = s.enqueue(get(0), this);
+		assert ret;
+	}
+
+	public ILits getVocabulary() {
+		return voc;
+	}
+
+	public int[] getLits() {
+		int[] tmp = new int[size()];
+		System.arraycopy(arena.memory, ref + 1, tmp, 0, tmp.length);
+		return tmp;
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if (!(obj instanceof ArenaClause))
+			return false;
+		ArenaClause other = (ArenaClause) obj;
+		int size = size();
+		if (size != other.size())
+			return false;
+		boolean ok;
+		for (int i = 0; i < size; i++) {
+			ok = false;
+			for (int j = 0; j < size; j++)
+				if (get(i) == other.get(j)) {
+					ok = true;
+					break;
+				}
+			if (!ok)
+				return false;
+		}
+		return true;
+	}
+
+	@Override
+	public int hashCode() {
+		long sum = 0;
+		int size = size();
+		for (int i = 0; i < size; i++) {
+			sum += get(i);
+		}
+		return (int) sum / size;
+	}
+
+	public boolean canBePropagatedMultipleTimes() {
+		return false;
+	}
+}
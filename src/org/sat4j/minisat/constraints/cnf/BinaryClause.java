@@ -90,8 +90,8 @@ public abstract class BinaryClause implements Constr, Serializable {
 	 * @see Constr#remove(Solver)
 	 */
 	public void remove(UnitPropagationListener upl) {
-		voc.watches(neg(head)).remove(this);
-		voc.watches(neg(tail)).remove(this);
+		voc.unwatch(neg(head), this);
+		voc.unwatch(neg(tail), this);
 	}
 
 	/*
@@ -107,11 +107,12 @@ public abstract class BinaryClause implements Constr, Serializable {
 	}
 
 	public boolean propagate(UnitPropagationListener s, int p) {
-		voc.watch(p, this);
 		if (head == neg(p)) {
+			voc.watch(p, this, tail);
 			return s.enqueue(tail, this);
 		}
 		assert tail == neg(p);
+		voc.watch(p, this, head);
 		return s.enqueue(head, this);
 	}
 
@@ -209,8 +210,8 @@ public abstract class BinaryClause implements Constr, Serializable {
 	}
 
 	public void register() {
-		voc.watch(neg(head), this);
-		voc.watch(neg(tail), this);
+		voc.watch(neg(head), this, tail);
+		voc.watch(neg(tail), this, head);
 	}
 
 	public boolean canBePropagatedMultipleTimes() {
@@ -0,0 +1,195 @@
+/*******************************************************************************
+ * SAT4J: a SATisfiability library for Java Copyright (C) 2004-2008 Daniel Le Berre
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Alternatively, the contents of this file may be used under the terms of
+ * either the GNU Lesser General Public License Version 2.1 or later (the
+ * "LGPL"), in which case the provisions of the LGPL are applicable instead
+ * of those above. If you wish to allow use of your version of this file only
+ * under the terms of the LGPL, and not to allow others to use your version of
+ * this file under the terms of the EPL, indicate your decision by deleting
+ * the provisions above and replace them with the notice and other provisions
+ * required by the LGPL. If you do not delete the provisions above, a recipient
+ * may use your version of this file under the terms of the EPL or the LGPL.
+ * 
+ * Based on the original MiniSat specification from:
+ * 
+ * An extensible SAT solver. Niklas Een and Niklas Sorensson. Proceedings of the
+ * Sixth International Conference on Theory and Applications of Satisfiability
+ * Testing, LNCS 2919, pp 502-518, 2003.
+ *
+ * See www.minisat.se for the original solver in C++.
+ * 
+ *******************************************************************************/
+package org.sat4j.minisat.constraints.cnf;
+
+import java.io.Serializable;
+
+import org.sat4j.core.Vec;
+import org.sat4j.specs.IVec;
+import org.sat4j.specs.IVecInt;
+
+/**
+ * A single int array holding the literals of many clauses, in the spirit of
+ * the ClauseAllocator of MiniSat. Each clause occupies a header word followed
+ * by its literals, and is referred to by the offset of its header. Freed space
+ * is reclaimed by compacting the arena, which updates the offsets stored in
+ * the clause objects.
+ */
+public final class ClauseArena implements Serializable {
+
+	private static final long serialVersionUID = 1L;
+
+	/**
+	 * The header of a clause is its size shifted left by two, and the lowest
+	 * bits tell whether the clause is registered or freed.
+	 */
+	static final int REGISTERED = 1;
+
+	static final int FREED = 2;
+
+	static final int SHIFT = 2;
+
+	int[] memory;
+
+	private int top;
+
+	private int wasted;
+
+	/**
+	 * The clauses in the order of their offsets.
+	 */
+	private final IVec<ArenaClause> clauses = new Vec<ArenaClause>();
+
+	/**
+	 * The learnt clause objects dropped by the compaction, which can be given
+	 * new literals instead of allocating new objects.
+	 */
+	private final IVec<LearntArenaClause> recycled = new Vec<LearntArenaClause>();
+
+	public ClauseArena() {
+		this(1024);
+	}
+
+	public ClauseArena(int capacity) {
+		memory = new int[capacity];
+	}
+
+	/**
+	 * Copies the literals into the arena.
+	 * 
+	 * @param owner
+	 *            the clause object referring to the literals
+	 * @param ps
+	 *            a VecInt that WILL BE EMPTY after calling that method.
+	 * @return the offset of the clause
+	 */
+	int alloc(ArenaClause owner, IVecInt ps) {
+		final int size = ps.size();
+		ensure(size + 1);
+		final int ref = top;
+		memory[ref] = size << SHIFT;
+		for (int i = 0; i < size; i++) {
+			memory[ref + 1 + i] = ps.get(i);
+		}
+		ps.clear();
+		top += size + 1;
+		clauses.push(owner);
+		return ref;
+	}
+
+	void register(int ref) {
+		memory[ref] |= REGISTERED;
+	}
+
+	void free(int ref) {
+		final int header = memory[ref];
+		if ((header & FREED) != 0) {
+			return;
+		}
+		memory[ref] = header | FREED;
+		wasted += (header >> SHIFT) + 1;
+		if (wasted > top / 2) {
+			compact();
+		}
+	}
+
+	private void ensure(int n) {
+		if (top + n <= memory.length) {
+			return;
+		}
+		compact();
+		if (top + n > memory.length / 2) {
+			int[] mem = new int[Math.max(top + n, 2 * memory.length)];
+			System.arraycopy(memory, 0, mem, 0, top);
+			memory = mem;
+		}
+	}
+
+	/**
+	 * Moves the live clauses to the beginning of the arena. Clauses that were
+	 * never registered or have been freed are dropped as soon as they are no
+	 * longer the reason of an assignment, since nothing else can refer to
+	 * them, and the dropped learnt clause objects are kept for reuse.
+	 */
+	void compact() {
+		final int[] mem = memory;
+		int to = 0, j = 0, waste = 0;
+		for (int i = 0; i < clauses.size(); i++) {
+			final ArenaClause c = clauses.get(i);
+			final int from = c.ref;
+			final int header = mem[from];
+			final boolean live = (header & (REGISTERED | FREED)) == REGISTERED;
+			if (!live && !c.locked()) {
+				if (c instanceof LearntArenaClause) {
+					recycled.push((LearntArenaClause) c);
+				}
+				continue;
+			}
+			final int length = (header >> SHIFT) + 1;
+			if ((header & FREED) != 0) {
+				waste += length;
+			}
+			System.arraycopy(mem, from, mem, to, length);
+			c.ref = to;
+			to += length;
+			clauses.set(j++, c);
+		}
+		clauses.shrinkTo(j);
+		top = to;
+		wasted = waste;
+	}
+
+	/**
+	 * @return a learnt clause object that is no longer referenced, or null
+	 */
+	LearntArenaClause recycle() {
+		if (recycled.isEmpty()) {
+			return null;
+		}
+		LearntArenaClause c = recycled.last();
+		recycled.pop();
+		return c;
+	}
+
+	/**
+	 * Forgets all clauses.
+	 */
+	public void clear() {
+		clauses.clear();
+		recycled.clear();
+		top = 0;
+		wasted = 0;
+	}
+
+	/**
+	 * @return the number of words in use, including wasted space.
+	 */
+	public int size() {
+		return top;
+	}
+}
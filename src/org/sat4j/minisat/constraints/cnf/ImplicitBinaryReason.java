@@ -0,0 +1,140 @@
+/*******************************************************************************
+ * SAT4J: a SATisfiability library for Java Copyright (C) 2004-2008 Daniel Le Berre
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Alternatively, the contents of this file may be used under the terms of
+ * either the GNU Lesser General Public License Version 2.1 or later (the
+ * "LGPL"), in which case the provisions of the LGPL are applicable instead
+ * of those above. If you wish to allow use of your version of this file only
+ * under the terms of the LGPL, and not to allow others to use your version of
+ * this file under the terms of the EPL, indicate your decision by deleting
+ * the provisions above and replace them with the notice and other provisions
+ * required by the LGPL. If you do not delete the provisions above, a recipient
+ * may use your version of this file under the terms of the EPL or the LGPL.
+ * 
+ * Based on the original MiniSat specification from:
+ * 
+ * An extensible SAT solver. Niklas Een and Niklas Sorensson. Proceedings of the
+ * Sixth International Conference on Theory and Applications of Satisfiability
+ * Testing, LNCS 2919, pp 502-518, 2003.
+ *
+ * See www.minisat.se for the original solver in C++.
+ * 
+ *******************************************************************************/
+package org.sat4j.minisat.constraints.cnf;
+
+import static org.sat4j.core.LiteralsUtils.neg;
+
+import java.io.Serializable;
+
+import org.sat4j.minisat.core.Constr;
+import org.sat4j.minisat.core.ILits;
+import org.sat4j.minisat.core.UnitPropagationListener;
+import org.sat4j.specs.IVecInt;
+
+/**
+ * The reason of a propagation, or a conflict, through an implicit binary
+ * clause of {@link Lits}. The binary clauses themselves are not objects, the
+ * vocabulary reuses one such reason per implied literal and updates it on
+ * each propagation.
+ */
+final class ImplicitBinaryReason implements Constr, Serializable {
+
+	private static final long serialVersionUID = 1L;
+
+	private int head;
+
+	private int tail;
+
+	/**
+	 * @param head
+	 *            the propagated literal, or a falsified one for a conflict
+	 * @param tail
+	 *            the falsified literal
+	 */
+	void set(int head, int tail) {
+		this.head = head;
+		this.tail = tail;
+	}
+
+	public void remove(UnitPropagationListener upl) {
+		// not registered as a constraint
+	}
+
+	public boolean simplify() {
+		return false;
+	}
+
+	public boolean propagate(UnitPropagationListener s, int p) {
+		throw new UnsupportedOperationException();
+	}
+
+	public void calcReason(int p, IVecInt outReason) {
+		if (p == ILits.UNDEFINED) {
+			outReason.push(neg(head));
+		}
+		outReason.push(neg(tail));
+	}
+
+	public void incActivity(double claInc) {
+		// implicit clauses have no activity
+	}
+
+	@Deprecated
+	public void forwardActivity(double claInc) {
+		// implicit clauses have no activity
+	}
+
+	public boolean locked() {
+		return false;
+	}
+
+	public void setLearnt() {
+		throw new UnsupportedOperationException();
+	}
+
+	public void register() {
+		throw new UnsupportedOperationException();
+	}
+
+	public void rescaleBy(double d) {
+		// implicit clauses have no activity
+	}
+
+	public void assertConstraint(UnitPropagationListener s) {
+		boolean ret = s.enqueue(head, this);
+		assert ret;
+	}
+
+	public boolean learnt() {
+		return false;
+	}
+
+	public int size() {
+		return 2;
+	}
+
+	public int get(int i) {
+		if (i == 0)
+			return head;
+		assert i == 1;
+		return tail;
+	}
+
+	public double getActivity() {
+		return 0.0;
+	}
+
+	public boolean canBePropagatedMultipleTimes() {
+		return false;
+	}
+
+	@Override
+	public String toString() {
+		return Lits.toString(head) + " " + Lits.toString(tail); //$NON-NLS-1$
+	}
+}
@@ -0,0 +1,110 @@
+/*******************************************************************************
+ * SAT4J: a SATisfiability library for Java Copyright (C) 2004-2008 Daniel Le Berre
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Alternatively, the contents of this file may be used under the terms of
+ * either the GNU Lesser General Public License Version 2.1 or later (the
+ * "LGPL"), in which case the provisions of the LGPL are applicable instead
+ * of those above. If you wish to allow use of your version of this file only
+ * under the terms of the LGPL, and not to allow others to use your version of
+ * this file under the terms of the EPL, indicate your decision by deleting
+ * the provisions above and replace them with the notice and other provisions
+ * required by the LGPL. If you do not delete the provisions above, a recipient
+ * may use your version of this file under the terms of the EPL or the LGPL.
+ * 
+ * Based on the original MiniSat specification from:
+ * 
+ * An extensible SAT solver. Niklas Een and Niklas Sorensson. Proceedings of the
+ * Sixth International Conference on Theory and Applications of Satisfiability
+ * Testing, LNCS 2919, pp 502-518, 2003.
+ *
+ * See www.minisat.se for the original solver in C++.
+ * 
+ *******************************************************************************/
+package org.sat4j.minisat.constraints.cnf;
+
+import org.sat4j.minisat.core.ILits;
+import org.sat4j.specs.IVecInt;
+
+/**
+ * A learnt clause stored in a {@link ClauseArena}. The clause is kept in the
+ * arena after compaction only if it has been registered or it is the reason
+ * of an assignment.
+ */
+public final class LearntArenaClause extends ArenaClause {
+
+	private static final long serialVersionUID = 1L;
+
+	public LearntArenaClause(ClauseArena arena, IVecInt ps, ILits voc) {
+		super(arena, ps, voc);
+	}
+
+	/**
+	 * Creates a learnt clause, reusing a clause object dropped by the arena
+	 * when there is one, so the conflict analysis does not allocate.
+	 * 
+	 * @param arena
+	 *            the arena storing the literals
+	 * @param ps
+	 *            A VecInt that WILL BE EMPTY after calling that method.
+	 * @param voc
+	 *            the vocabulary of the formula
+	 * @return a new or recycled learnt clause
+	 */
+	public static LearntArenaClause newClause(ClauseArena arena, IVecInt ps,
+			ILits voc) {
+		LearntArenaClause c = arena.recycle();
+		if (c == null) {
+			return new LearntArenaClause(arena, ps, voc);
+		}
+		assert c.voc == voc;
+		c.ref = arena.alloc(c, ps);
+		c.activity = 0;
+		return c;
+	}
+
+	public void register() {
+		assert size() > 1;
+		final int[] mem = arena.memory;
+		final int first = ref + 1;
+		final int end = first + size();
+		// watch the literal with the highest decision level
+		int maxi = first + 1;
+		int maxlevel = voc.getLevel(mem[maxi]);
+		for (int i = first + 2; i < end; i++) {
+			int level = voc.getLevel(mem[i]);
+			if (level > maxlevel) {
+				maxi = i;
+				maxlevel = level;
+			}
+		}
+		int l = mem[first + 1];
+		mem[first + 1] = mem[maxi];
+		mem[maxi] = l;
+
+		voc.watch(mem[first] ^ 1, this, mem[first + 1]);
+		voc.watch(mem[first + 1] ^ 1, this, mem[first]);
+		arena.register(ref);
+	}
+
+	public boolean learnt() {
+		return true;
+	}
+
+	public void setLearnt() {
+		// do nothing
+	}
+
+	@Deprecated
+	public void forwardActivity(double claInc) {
+
+	}
+
+	public void incActivity(double claInc) {
+		activity += claInc;
+	}
+}
@@ -63,8 +63,8 @@ public final class LearntWLClause extends WLClause {
 		lits[maxi] = l;
 
 		// ajoute la clause a la liste des clauses control???es.
-		voc.watch(lits[0] ^ 1, this);
-		voc.watch(lits[1] ^ 1, this);
+		voc.watch(lits[0] ^ 1, this, lits[1]);
+		voc.watch(lits[1] ^ 1, this, lits[0]);
 
 	}
 
@@ -28,6 +28,7 @@
 package org.sat4j.minisat.constraints.cnf;
 
 import java.io.Serializable;
+import java.util.Arrays;
 
 import org.sat4j.core.LiteralsUtils;
 import org.sat4j.core.Vec;
@@ -35,6 +36,7 @@ import org.sat4j.minisat.core.Constr;
 import org.sat4j.minisat.core.ILits;
 import org.sat4j.minisat.core.Propagatable;
 import org.sat4j.minisat.core.Undoable;
+import org.sat4j.minisat.core.UnitPropagationListener;
 import org.sat4j.specs.IVec;
 
 /**
@@ -55,6 +57,27 @@ public final class Lits implements Serializable, ILits {
 	@SuppressWarnings("unchecked")
 	private IVec<Propagatable>[] watches = new IVec[0];
 
+	/**
+	 * The watches with blocker literals are kept in parallel primitive arrays.
+	 */
+	private Propagatable[][] blocked = new Propagatable[0][];
+
+	private int[][] blockers = new int[0][];
+
+	private int[] nblocked = new int[0];
+
+	/**
+	 * The implicit binary clauses, as the literals implied by each literal.
+	 */
+	private int[][] implications = new int[0][];
+
+	private int[] nimplications = new int[0];
+
+	private ImplicitBinaryReason[] binaryReasons = new ImplicitBinaryReason[0];
+
+	private final ImplicitBinaryReason binaryConflict =
+			new ImplicitBinaryReason();
+
 	private int[] level = new int[0];
 
 	private Constr[] reason = new Constr[0];
@@ -90,6 +113,33 @@ public final class Lits implements Serializable, ILits {
 		System.arraycopy(watches, 0, nwatches, 0, watches.length);
 		watches = nwatches;
 
+		Propagatable[][] newBlocked = new Propagatable[2 * nvars][];
+		System.arraycopy(blocked, 0, newBlocked, 0, blocked.length);
+		blocked = newBlocked;
+
+		int[][] newBlockers = new int[2 * nvars][];
+		System.arraycopy(blockers, 0, newBlockers, 0, blockers.length);
+		blockers = newBlockers;
+
+		int[] newNblocked = new int[2 * nvars];
+		System.arraycopy(nblocked, 0, newNblocked, 0, nblocked.length);
+		nblocked = newNblocked;
+
+		int[][] newImplications = new int[2 * nvars][];
+		System.arraycopy(implications, 0, newImplications, 0,
+				implications.length);
+		implications = newImplications;
+
+		int[] newNimplications = new int[2 * nvars];
+		System.arraycopy(nimplications, 0, newNimplications, 0,
+				nimplications.length);
+		nimplications = newNimplications;
+
+		ImplicitBinaryReason[] nreasons = new ImplicitBinaryReason[2 * nvars];
+		System.arraycopy(binaryReasons, 0, nreasons, 0,
+				binaryReasons.length);
+		binaryReasons = nreasons;
+
 		IVec<Undoable>[] nundos = new IVec[nvars];
 		System.arraycopy(undos, 0, nundos, 0, undos.length);
 		undos = nundos;
@@ -119,6 +169,13 @@ public final class Lits implements Serializable, ILits {
 			pool[var] = true;
 			watches[var << 1] = new Vec<Propagatable>();
 			watches[(var << 1) | 1] = new Vec<Propagatable>();
+			for (int l = var << 1; l <= ((var << 1) | 1); l++) {
+				blocked[l] = new Propagatable[4];
+				blockers[l] = new int[4];
+				nblocked[l] = 0;
+				implications[l] = new int[4];
+				nimplications[l] = 0;
+			}
 			undos[var] = new Vec<Undoable>();
 			level[var] = -1;
 			falsified[var << 1] = false; // because truthValue[var] is
@@ -204,6 +261,10 @@ public final class Lits implements Serializable, ILits {
 	public void reset(int lit) {
 		watches[lit].clear();
 		watches[lit ^ 1].clear();
+		clearBlocked(lit);
+		clearBlocked(lit ^ 1);
+		nimplications[lit] = 0;
+		nimplications[lit ^ 1] = 0;
 		level[lit >> 1] = -1;
 		reason[lit >> 1] = null;
 		undos[lit >> 1].clear();
@@ -240,6 +301,137 @@ public final class Lits implements Serializable, ILits {
 		return watches[lit];
 	}
 
+	public void watch(int lit, Propagatable c, int blocker) {
+		final int n = nblocked[lit];
+		if (n == blocked[lit].length) {
+			final int size = Math.max(4, 2 * n);
+			blocked[lit] = Arrays.copyOf(blocked[lit], size);
+			blockers[lit] = Arrays.copyOf(blockers[lit], size);
+		}
+		blocked[lit][n] = c;
+		blockers[lit][n] = blocker;
+		nblocked[lit] = n + 1;
+	}
+
+	public void unwatch(int lit, Propagatable c) {
+		final Propagatable[] cs = blocked[lit];
+		final int n = nblocked[lit];
+		int j = 0;
+		while (j < n && cs[j] != c) {
+			j++;
+		}
+		if (j == n) {
+			throw new IllegalStateException("the constraint does not watch "
+					+ lit);
+		}
+		System.arraycopy(cs, j + 1, cs, j, n - j - 1);
+		System.arraycopy(blockers[lit], j + 1, blockers[lit], j, n - j - 1);
+		cs[n - 1] = null;
+		nblocked[lit] = n - 1;
+	}
+
+	public Propagatable propagateBlocked(int p, UnitPropagationListener s) {
+		// compact the watches of p in place, a constraint that watches p
+		// again is written to the next free position, which is already read
+		final Propagatable[] cs = blocked[p];
+		final int[] bs = blockers[p];
+		final int n = nblocked[p];
+		final int[] lnblocked = nblocked;
+		final boolean[] lfalsified = falsified;
+
+		Propagatable conflict = null;
+		int j = 0;
+		for (int i = 0; i < n; i++) {
+			final Propagatable c = cs[i];
+			final int b = bs[i];
+			if (lfalsified[b ^ 1]) {
+				// the blocker is satisfied, keep the watch untouched
+				cs[j] = c;
+				bs[j++] = b;
+				continue;
+			}
+			lnblocked[p] = j;
+			final boolean ok = c.propagate(s, p);
+			j = lnblocked[p];
+			if (!ok) {
+				conflict = c;
+				for (i++; i < n; i++) {
+					cs[j] = cs[i];
+					bs[j++] = bs[i];
+				}
+				break;
+			}
+		}
+
+		assert blocked[p] == cs;
+		lnblocked[p] = j;
+		Arrays.fill(cs, j, n, null);
+		return conflict;
+	}
+
+	public void implies(int p, int q) {
+		final int n = nimplications[p];
+		if (n == implications[p].length) {
+			implications[p] = Arrays.copyOf(implications[p],
+					Math.max(4, 2 * n));
+		}
+		implications[p][n] = q;
+		nimplications[p] = n + 1;
+		if (binaryReasons[q] == null) {
+			binaryReasons[q] = new ImplicitBinaryReason();
+		}
+	}
+
+	public void unimplies(int p, int q) {
+		final int[] qs = implications[p];
+		final int n = nimplications[p];
+		// the entries past n are stale, and may still contain q
+		int j = 0;
+		while (j < n && qs[j] != q) {
+			j++;
+		}
+		if (j == n) {
+			throw new IllegalStateException(p + " does not imply " + q);
+		}
+		System.arraycopy(qs, j + 1, qs, j, n - j - 1);
+		nimplications[p] = n - 1;
+	}
+
+	public int[] implications(int p) {
+		return implications[p];
+	}
+
+	public int nbImplications(int p) {
+		return nimplications[p];
+	}
+
+	public Constr propagateImplications(int p, UnitPropagationListener s) {
+		final int[] qs = implications[p];
+		final int n = nimplications[p];
+		for (int i = 0; i < n; i++) {
+			final int q = qs[i];
+			if (falsified[q]) {
+				binaryConflict.set(q, p ^ 1);
+				return binaryConflict;
+			}
+			if (!falsified[q ^ 1]) {
+				final ImplicitBinaryReason r = binaryReasons[q];
+				r.set(q, p ^ 1);
+				s.enqueue(q, r);
+			}
+		}
+		return null;
+	}
+
+	public int nbWatches(int lit) {
+		return watches[lit].size() + nblocked[lit] + nimplications[lit];
+	}
+
+	private void clearBlocked(int lit) {
+		Arrays.fill(blocked[lit], 0, nblocked[lit], null);
+		nblocked[lit] = 0;
+	}
+
 	public boolean isImplied(int lit) {
 		int var = lit >> 1;
 		assert reason[var] == null || falsified[lit] || falsified[lit ^ 1];
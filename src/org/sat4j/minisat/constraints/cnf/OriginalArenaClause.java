@@ -0,0 +1,90 @@
+/*******************************************************************************
+ * SAT4J: a SATisfiability library for Java Copyright (C) 2004-2008 Daniel Le Berre
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Alternatively, the contents of this file may be used under the terms of
+ * either the GNU Lesser General Public License Version 2.1 or later (the
+ * "LGPL"), in which case the provisions of the LGPL are applicable instead
+ * of those above. If you wish to allow use of your version of this file only
+ * under the terms of the LGPL, and not to allow others to use your version of
+ * this file under the terms of the EPL, indicate your decision by deleting
+ * the provisions above and replace them with the notice and other provisions
+ * required by the LGPL. If you do not delete the provisions above, a recipient
+ * may use your version of this file under the terms of the EPL or the LGPL.
+ * 
+ * Based on the original MiniSat specification from:
+ * 
+ * An extensible SAT solver. Niklas Een and Niklas Sorensson. Proceedings of the
+ * Sixth International Conference on Theory and Applications of Satisfiability
+ * Testing, LNCS 2919, pp 502-518, 2003.
+ *
+ * See www.minisat.se for the original solver in C++.
+ * 
+ *******************************************************************************/
+package org.sat4j.minisat.constraints.cnf;
+
+import org.sat4j.minisat.core.ILits;
+import org.sat4j.minisat.core.UnitPropagationListener;
+import org.sat4j.specs.IVecInt;
+
+/**
+ * An original clause stored in a {@link ClauseArena}.
+ */
+public final class OriginalArenaClause extends ArenaClause {
+
+	private static final long serialVersionUID = 1L;
+
+	public OriginalArenaClause(ClauseArena arena, IVecInt ps, ILits voc) {
+		super(arena, ps, voc);
+	}
+
+	public void register() {
+		assert size() > 1;
+		final int[] mem = arena.memory;
+		voc.watch(mem[ref + 1] ^ 1, this, mem[ref + 2]);
+		voc.watch(mem[ref + 2] ^ 1, this, mem[ref + 1]);
+		arena.register(ref);
+	}
+
+	public boolean learnt() {
+		return false;
+	}
+
+	public void setLearnt() {
+		// do nothing
+	}
+
+	/**
+	 * Creates a brand new clause, presumably from external data.
+	 * 
+	 * @param s
+	 *            the object responsible for unit propagation
+	 * @param arena
+	 *            the arena storing the literals
+	 * @param voc
+	 *            the vocabulary
+	 * @param literals
+	 *            the literals to store in the clause
+	 * @return the created clause
+	 */
+	public static OriginalArenaClause brandNewClause(
+			UnitPropagationListener s, ClauseArena arena, ILits voc,
+			IVecInt literals) {
+		OriginalArenaClause c = new OriginalArenaClause(arena, literals, voc);
+		c.register();
+		return c;
+	}
+
+	@Deprecated
+	public void forwardActivity(double claInc) {
+		activity += claInc;
+	}
+
+	public void incActivity(double claInc) {
+
+	}
+}
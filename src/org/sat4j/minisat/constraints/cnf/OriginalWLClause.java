@@ -49,8 +49,8 @@ public final class OriginalWLClause extends WLClause {
 	 */
 	public void register() {
 		assert lits.length > 1;
-		voc.watch(lits[0] ^ 1, this);
-		voc.watch(lits[1] ^ 1, this);
+		voc.watch(lits[0] ^ 1, this, lits[1]);
+		voc.watch(lits[1] ^ 1, this, lits[0]);
 	}
 
 	public boolean learnt() {
@@ -87,8 +87,8 @@ public abstract class WLClause implements Constr, Serializable {
 	 * @since 2.1
 	 */
 	public void remove(UnitPropagationListener upl) {
-		voc.watches(lits[0] ^ 1).remove(this);
-		voc.watches(lits[1] ^ 1).remove(this);
+		voc.unwatch(lits[0] ^ 1, this);
+		voc.unwatch(lits[1] ^ 1, this);
 		// la clause peut etre effacee
 	}
 
@@ -113,6 +113,11 @@ public abstract class WLClause implements Constr, Serializable {
 			mylits[0] = mylits[1];
 			mylits[1] = p ^ 1;
 		}
+		// the other watched literal becomes the blocker if satisfied
+		if (voc.isSatisfied(mylits[0])) {
+			voc.watch(p, this, mylits[0]);
+			return true;
+		}
 		// assert mylits[1] == (p ^ 1);
 		int previous = p ^ 1, tmp;
 		// look for new literal to watch: applying move to front strategy
@@ -120,7 +125,7 @@ public abstract class WLClause implements Constr, Serializable {
 			if (!voc.isFalsified(mylits[i])) {
 				mylits[1] = mylits[i];
 				mylits[i] = previous;
-				voc.watch(mylits[1] ^ 1, this);
+				voc.watch(mylits[1] ^ 1, this, mylits[0]);
 				return true;
 			} else {
 				tmp = previous;
@@ -135,7 +140,7 @@ public abstract class WLClause implements Constr, Serializable {
 			mylits[i - 1] = mylits[i];
 		}
 		mylits[mylits.length - 1] = previous;
-		voc.watch(p, this);
+		voc.watch(p, this, mylits[0]);
 		// propagates first watched literal
 		return s.enqueue(mylits[0], this);
 	}
@@ -28,12 +28,12 @@
 package org.sat4j.minisat.core;
 
 import java.io.Serializable;
-
-import org.sat4j.core.VecInt;
-import org.sat4j.specs.IVecInt;
+import java.util.Arrays;
 
 /**
  * Heap implementation used to maintain the variables order in some heuristics.
+ * This is a 4-ary heap kept in plain int arrays, so the children of a node
+ * share a cache line and the tree is half as deep as a binary one.
  * 
  * @author daniel
  * 
@@ -45,104 +45,132 @@ public final class Heap implements Serializable {
 	 */
 	private static final long serialVersionUID = 1L;
 
-	private static final int left(int i) {
-		return i << 1;
-	}
-
-	private static final int right(int i) {
-		return (i << 1) ^ 1;
+	/*
+	 * the heap is stored from index 1, the children of node i are the nodes
+	 * 4i-2 to 4i+1
+	 */
+	private static final int firstChild(int i) {
+		return (i << 2) - 2;
 	}
 
 	private static final int parent(int i) {
-		return i >> 1;
+		return (i + 2) >> 2;
 	}
 
-	private final boolean comp(int a, int b) {
-		return activity[a] > activity[b];
-	}
+	private int[] heap = new int[16]; // heap of ints
 
-	private final IVecInt heap = new VecInt(); // heap of ints
+	private int size = 1; // first free position in heap
 
-	private final IVecInt indices = new VecInt(); // int -> index in heap
+	private int[] indices = new int[0]; // int -> index in heap
 
 	private final double[] activity;
 
 	final void percolateUp(int i) {
-		int x = heap.get(i);
-		while (parent(i) != 0 && comp(x, heap.get(parent(i)))) {
-			heap.set(i, heap.get(parent(i)));
-			indices.set(heap.get(i), i);
-			i = parent(i);
+		final int[] lheap = heap;
+		final int[] lindices = indices;
+		int x = lheap[i];
+		double ax = activity[x];
+		while (i > 1) {
+			int p = parent(i);
+			int y = lheap[p];
+			if (!(ax > activity[y]))
+				break;
+			lheap[i] = y;
+			lindices[y] = i;
+			i = p;
 		}
-		heap.set(i, x);
-		indices.set(x, i);
+		lheap[i] = x;
+		lindices[x] = i;
 	}
 
 	final void percolateDown(int i) {
-		int x = heap.get(i);
-		while (left(i) < heap.size()) {
-			int child = right(i) < heap.size()
-					&& comp(heap.get(right(i)), heap.get(left(i))) ? right(i)
-					: left(i);
-			if (!comp(heap.get(child), x))
+		final int[] lheap = heap;
+		final int[] lindices = indices;
+		final double[] lactivity = activity;
+		final int lsize = size;
+		int x = lheap[i];
+		double ax = lactivity[x];
+		for (;;) {
+			int c = firstChild(i);
+			if (c >= lsize)
 				break;
-			heap.set(i, heap.get(child));
-			indices.set(heap.get(i), i);
+			int end = Math.min(c + 4, lsize);
+			int child = c;
+			double ac = lactivity[lheap[c]];
+			for (c++; c < end; c++) {
+				double a = lactivity[lheap[c]];
+				if (a > ac) {
+					child = c;
+					ac = a;
+				}
+			}
+			if (!(ac > ax))
+				break;
+			int y = lheap[child];
+			lheap[i] = y;
+			lindices[y] = i;
 			i = child;
 		}
-		heap.set(i, x);
-		indices.set(x, i);
+		lheap[i] = x;
+		lindices[x] = i;
 	}
 
 	boolean ok(int n) {
-		return n >= 0 && n < indices.size();
+		return n >= 0 && n < indices.length;
 	}
 
 	public Heap(double[] activity) { // NOPMD
 		this.activity = activity;
-		heap.push(-1);
+		heap[0] = -1;
 	}
 
 	public void setBounds(int size) {
 		assert (size >= 0);
-		indices.growTo(size, 0);
+		if (indices.length < size)
+			indices = Arrays.copyOf(indices, size);
+		if (heap.length < size + 1)
+			heap = Arrays.copyOf(heap, size + 1);
 	}
 
 	public boolean inHeap(int n) {
 		assert (ok(n));
-		return indices.get(n) != 0;
+		return indices[n] != 0;
 	}
 
 	public void increase(int n) {
 		assert (ok(n));
 		assert (inHeap(n));
-		percolateUp(indices.get(n));
+		percolateUp(indices[n]);
 	}
 
 	public boolean empty() {
-		return heap.size() == 1;
+		return size == 1;
 	}
 
 	public int size() {
-		return heap.size() - 1;
+		return size - 1;
 	}
 
 	public int get(int i) {
-		int r = heap.get(i);
-		heap.set(i, heap.last());
-		indices.set(heap.get(i), i);
-		indices.set(r, 0);
-		heap.pop();
-		if (heap.size() > 1)
-			percolateDown(1);
+		int r = heap[i];
+		int x = heap[--size];
+		indices[r] = 0;
+		if (i < size) {
+			heap[i] = x;
+			indices[x] = i;
+			percolateDown(i);
+			percolateUp(indices[x]);
+		}
 		return r;
 	}
 
 	public void insert(int n) {
 		assert (ok(n));
-		indices.set(n, heap.size());
-		heap.push(n);
-		percolateUp(indices.get(n));
+		if (size == heap.length)
+			heap = Arrays.copyOf(heap, 2 * size);
+		heap[size] = n;
+		indices[n] = size++;
+		percolateUp(indices[n]);
 	}
 
 	public int getmin() {
@@ -154,9 +182,15 @@ public final class Heap implements Serializable {
 	}
 
 	public boolean heapProperty(int i) {
-		return i >= heap.size()
-				|| ((parent(i) == 0 || !comp(heap.get(i), heap.get(parent(i))))
-						&& heapProperty(left(i)) && heapProperty(right(i)));
+		if (i >= size)
+			return true;
+		if (i > 1 && activity[heap[i]] > activity[heap[parent(i)]])
+			return false;
+		int c = firstChild(i);
+		for (int k = 0; k < 4; k++)
+			if (!heapProperty(c + k))
+				return false;
+		return true;
 	}
 
 }
@@ -141,5 +141,104 @@ public interface ILits {
 	 */
 	public abstract IVec<Propagatable> watches(int lit);
 
+	/**
+	 * Adds a watch with a blocker literal. The constraint is not visited
+	 * during propagation while the blocker literal is satisfied. Such watches
+	 * are not part of {@link #watches(int)}.
+	 * 
+	 * @param lit
+	 *            a literal
+	 * @param c
+	 *            the constraint watching the negation of lit
+	 * @param blocker
+	 *            a literal of the constraint, whose satisfaction makes the
+	 *            constraint satisfied
+	 */
+	public abstract void watch(int lit, Propagatable c, int blocker);
+
+	/**
+	 * Removes a watch added by {@link #watch(int, Propagatable, int)}.
+	 * 
+	 * @param lit
+	 *            a literal
+	 * @param c
+	 *            the constraint watching the negation of lit
+	 */
+	public abstract void unwatch(int lit, Propagatable c);
+
+	/**
+	 * Propagates the satisfaction of p in the constraints watching it with a
+	 * blocker literal. The constraints are responsible for watching a literal
+	 * again.
+	 * 
+	 * @param p
+	 *            the literal being propagated
+	 * @param s
+	 *            something able to perform unit propagation
+	 * @return the conflicting constraint, or null if there is no conflict
+	 */
+	public abstract Propagatable propagateBlocked(int p,
+			UnitPropagationListener s);
+
+	/**
+	 * Adds an implicit binary clause, without any constraint object: q is
+	 * propagated whenever p is satisfied. The clause (a or b) is thus recorded
+	 * as the two implications neg(a) to b and neg(b) to a. Implicit clauses
+	 * are only removed by {@link #reset(int)}.
+	 * 
+	 * @param p
+	 *            a literal
+	 * @param q
+	 *            the literal implied by p
+	 */
+	public abstract void implies(int p, int q);
+
+	/**
+	 * Removes an implication added by {@link #implies(int, int)}.
+	 * 
+	 * @param p
+	 *            a literal
+	 * @param q
+	 *            the literal implied by p
+	 */
+	public abstract void unimplies(int p, int q);
+
+	/**
+	 * @param p
+	 *            a literal
+	 * @return the literals implied by p through the implicit binary clauses,
+	 *         only the first {@link #nbImplications(int)} ones are valid
+	 */
+	public abstract int[] implications(int p);
+
+	/**
+	 * @param p
+	 *            a literal
+	 * @return the number of literals implied by p through the implicit binary
+	 *         clauses
+	 */
+	public abstract int nbImplications(int p);
+
+	/**
+	 * Propagates the satisfaction of p through the implicit binary clauses.
+	 * 
+	 * @param p
+	 *            the literal being propagated
+	 * @param s
+	 *            something able to perform unit propagation
+	 * @return the conflicting constraint, or null if there is no conflict
+	 */
+	public abstract Constr propagateImplications(int p,
+			UnitPropagationListener s);
+
+	/**
+	 * @param lit
+	 *            a literal
+	 * @return the number of constraints that watch the negation of lit, with
+	 *         or without a blocker literal, including the implicit binary
+	 *         clauses
+	 */
+	public abstract int nbWatches(int lit);
+
 	public abstract String valueToString(int lit);
 }
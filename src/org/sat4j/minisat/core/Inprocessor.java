@@ -0,0 +1,866 @@
+/*******************************************************************************
+ * SAT4J: a SATisfiability library for Java Copyright (C) 2004-2008 Daniel Le Berre
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Alternatively, the contents of this file may be used under the terms of
+ * either the GNU Lesser General Public License Version 2.1 or later (the
+ * "LGPL"), in which case the provisions of the LGPL are applicable instead
+ * of those above. If you wish to allow use of your version of this file only
+ * under the terms of the LGPL, and not to allow others to use your version of
+ * this file under the terms of the EPL, indicate your decision by deleting
+ * the provisions above and replace them with the notice and other provisions
+ * required by the LGPL. If you do not delete the provisions above, a recipient
+ * may use your version of this file under the terms of the EPL or the LGPL.
+ * 
+ * Based on the original MiniSat specification from:
+ * 
+ * An extensible SAT solver. Niklas Een and Niklas Sorensson. Proceedings of the
+ * Sixth International Conference on Theory and Applications of Satisfiability
+ * Testing, LNCS 2919, pp 502-518, 2003.
+ *
+ * See www.minisat.se for the original solver in C++.
+ * 
+ *******************************************************************************/
+package org.sat4j.minisat.core;
+
+import java.io.Serializable;
+import java.util.Arrays;
+
+import org.sat4j.core.Vec;
+import org.sat4j.core.VecInt;
+import org.sat4j.specs.ContradictionException;
+import org.sat4j.specs.IVec;
+import org.sat4j.specs.IVecInt;
+
+/**
+ * Simplifies the clauses of a {@link Solver} at decision level 0, before the
+ * assumptions are made and on the restarts without assumptions. Each round
+ * performs failed literal probing, equivalent literal substitution, backward
+ * subsumption and self-subsumption, and bounded variable elimination, each
+ * technique within the effort budget of the round.
+ * 
+ * Only the clauses are simplified, the variables of the other constraints are
+ * frozen. The other variables are frozen too unless they are declared
+ * eliminable by {@link #setEliminable(int, boolean)}: the eliminable variables
+ * must not appear in the clauses or the assumptions given to the solver after
+ * its first call. Since the original clauses are rewritten, the constraints
+ * cannot be removed from a solver using inprocessing.
+ */
+public class Inprocessor implements Serializable {
+
+	private static final long serialVersionUID = 1L;
+
+	/**
+	 * The maximum length of the resolvents of variable elimination.
+	 */
+	private static final int RESOLVENT_LIMIT = 20;
+
+	/**
+	 * The maximum number of resolutions tried to eliminate a variable.
+	 */
+	private static final int RESOLUTION_LIMIT = 400;
+
+	private Solver<?> solver;
+
+	private long effort = 1000000;
+
+	private long interval = 5000;
+
+	private long nextround = 0;
+
+	private int probed = 0;
+
+	private boolean[] eliminable = new boolean[1];
+
+	private boolean[] eliminated = new boolean[1];
+
+	/**
+	 * The removed clauses needed to extend a model to the eliminated
+	 * variables: the literals of each clause, its pivot first, followed by the
+	 * size of the clause.
+	 */
+	private final IVecInt extension = new VecInt();
+
+	/*
+	 * The clauses of the current round, the binary clauses kept implicitly by
+	 * the vocabulary have no source constraint.
+	 */
+	private int[][] clauses = new int[0][];
+
+	private Constr[] sources = new Constr[0];
+
+	private int[] indexes = new int[0];
+
+	private int[][] implicit = new int[0][];
+
+	private boolean[] removed = new boolean[0];
+
+	private boolean[] modified = new boolean[0];
+
+	private int nclauses;
+
+	private IVecInt[] occurrences = new IVecInt[0];
+
+	private boolean[] frozen = new boolean[0];
+
+	private int[] marks = new int[0];
+
+	private int mark = 0;
+
+	private long steps;
+
+	void setSolver(Solver<?> solver) {
+		this.solver = solver;
+	}
+
+	/**
+	 * @param steps
+	 *            the effort of each technique in a round, roughly the number
+	 *            of literals visited
+	 */
+	public void setEffort(long steps) {
+		effort = steps;
+	}
+
+	/**
+	 * @param conflicts
+	 *            the minimum number of conflicts between two rounds
+	 */
+	public void setInterval(long conflicts) {
+		interval = conflicts;
+	}
+
+	/**
+	 * Allows the elimination of a variable, which is frozen by default.
+	 * 
+	 * @param var
+	 *            a variable in Dimacs format
+	 * @param status
+	 *            true iff the variable can be eliminated
+	 */
+	public void setEliminable(int var, boolean status) {
+		if (var >= eliminable.length) {
+			eliminable = Arrays.copyOf(eliminable,
+					Math.max(var + 1, 2 * eliminable.length));
+		}
+		eliminable[var] = status;
+	}
+
+	/**
+	 * @param var
+	 *            a variable in Dimacs format
+	 * @return true iff the variable was eliminated or substituted
+	 */
+	public boolean isEliminated(int var) {
+		return var < eliminated.length && eliminated[var];
+	}
+
+	/**
+	 * Forgets the eliminated variables, when the solver is reset.
+	 */
+	public void reset() {
+		Arrays.fill(eliminable, false);
+		Arrays.fill(eliminated, false);
+		extension.clear();
+		nextround = 0;
+		probed = 0;
+	}
+
+	/**
+	 * Assigns the eliminated variables in a model of the simplified clauses.
+	 * 
+	 * @param model
+	 *            the truth value of each variable, the first one at index 0
+	 */
+	void extendModel(boolean[] model) {
+		int i = extension.size();
+		while (i > 0) {
+			final int size = extension.get(--i);
+			i -= size;
+			boolean satisfied = false;
+			for (int j = i; j < i + size && !satisfied; j++) {
+				final int lit = extension.get(j);
+				satisfied = model[(lit >> 1) - 1] == ((lit & 1) == 0);
+			}
+			if (!satisfied) {
+				final int pivot = extension.get(i);
+				model[(pivot >> 1) - 1] = (pivot & 1) == 0;
+			}
+		}
+	}
+
+	/**
+	 * Runs a round of inprocessing if enough conflicts occurred since the
+	 * previous one. The root level of the solver must be 0 with all the
+	 * literals propagated, the kept decision levels are canceled.
+	 * 
+	 * @param constrs
+	 *            the original constraints of the solver
+	 * @param learnts
+	 *            the learned constraints of the solver
+	 * @param assumps
+	 *            the assumptions of the current call, in Dimacs format
+	 * @return false iff the constraints were found inconsistent
+	 */
+	boolean inprocess(IVec<Constr> constrs, IVec<Constr> learnts,
+			IVecInt assumps) {
+		final SolverStats stats = solver.getStats();
+		if (stats.conflicts < nextround) {
+			return true;
+		}
+		nextround = stats.conflicts + interval;
+		stats.inprocessings++;
+		solver.cancelUntil(0);
+		init(assumps);
+		if (!probe()) {
+			return false;
+		}
+		collect(constrs);
+		if (!substitute(learnts)) {
+			return false;
+		}
+		subsume();
+		eliminate();
+		return commit(constrs, learnts);
+	}
+
+	private void init(IVecInt assumps) {
+		final int nvars = solver.voc.nVars();
+		if (eliminated.length <= nvars) {
+			eliminated = Arrays.copyOf(eliminated, nvars + 1);
+		}
+		if (eliminable.length <= nvars) {
+			eliminable = Arrays.copyOf(eliminable, nvars + 1);
+		}
+		if (frozen.length <= nvars) {
+			frozen = new boolean[nvars + 1];
+			marks = new int[2 * nvars + 2];
+			mark = 0;
+			occurrences = new IVecInt[2 * nvars + 2];
+		}
+		for (int v = 1; v <= nvars; v++) {
+			frozen[v] = !eliminable[v];
+		}
+		for (int i = 0; i < assumps.size(); i++) {
+			final int v = Math.abs(assumps.get(i));
+			if (v <= nvars) {
+				frozen[v] = true;
+			}
+		}
+		nclauses = 0;
+	}
+
+	private int newMark() {
+		if (++mark == Integer.MAX_VALUE) {
+			Arrays.fill(marks, 0);
+			mark = 1;
+		}
+		return mark;
+	}
+
+	/**
+	 * Failed literal probing: a literal whose propagation leads to a conflict
+	 * is falsified, the literals propagated by both polarities of a variable
+	 * are satisfied.
+	 */
+	private boolean probe() {
+		final ILits voc = solver.voc;
+		final IVecInt trail = solver.trail;
+		final int nvars = voc.nVars();
+		final IVecInt units = new VecInt();
+		steps = effort;
+		for (int k = 0; k < nvars && steps > 0; k++) {
+			probed = probed % nvars + 1;
+			final int v = probed;
+			if (!voc.belongsToPool(v) || eliminated[v]
+					|| !voc.isUnassigned(v << 1)) {
+				continue;
+			}
+			final int p = v << 1;
+			units.clear();
+			int failed = ILits.UNDEFINED;
+			final int before = trail.size();
+			solver.assume(p);
+			if (solver.propagate() != null) {
+				failed = p;
+			} else {
+				final int m = newMark();
+				for (int i = before + 1; i < trail.size(); i++) {
+					marks[trail.get(i)] = m;
+				}
+				steps -= trail.size() - before;
+				solver.cancelUntil(0);
+				solver.assume(p ^ 1);
+				if (solver.propagate() != null) {
+					failed = p ^ 1;
+				} else {
+					for (int i = before + 1; i < trail.size(); i++) {
+						if (marks[trail.get(i)] == m) {
+							units.push(trail.get(i));
+						}
+					}
+				}
+			}
+			steps -= trail.size() - before;
+			solver.cancelUntil(0);
+			if (failed != ILits.UNDEFINED) {
+				solver.getStats().failedliterals++;
+				units.push(failed ^ 1);
+			}
+			for (int i = 0; i < units.size(); i++) {
+				if (!solver.enqueue(units.get(i))) {
+					return false;
+				}
+			}
+			if (solver.propagate() != null) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private void add(int[] lits, Constr source, int index, int[] pair) {
+		if (nclauses == clauses.length) {
+			final int size = Math.max(16, 2 * nclauses);
+			clauses = Arrays.copyOf(clauses, size);
+			sources = Arrays.copyOf(sources, size);
+			indexes = Arrays.copyOf(indexes, size);
+			implicit = Arrays.copyOf(implicit, size);
+			removed = Arrays.copyOf(removed, size);
+			modified = Arrays.copyOf(modified, size);
+		}
+		clauses[nclauses] = lits;
+		sources[nclauses] = source;
+		indexes[nclauses] = index;
+		implicit[nclauses] = pair;
+		removed[nclauses] = false;
+		modified[nclauses] = source == null && pair == null;
+		nclauses++;
+	}
+
+	/**
+	 * Collects the clauses, without the literals falsified at decision level
+	 * 0. The satisfied clauses are removed.
+	 */
+	private void collect(IVec<Constr> constrs) {
+		final ILits voc = solver.voc;
+		final IVecInt lits = new VecInt();
+		for (int i = 0; i < constrs.size(); i++) {
+			final Constr c = constrs.get(i);
+			if (c.canBePropagatedMultipleTimes()) {
+				for (int j = 0; j < c.size(); j++) {
+					frozen[c.get(j) >> 1] = true;
+				}
+				continue;
+			}
+			if (c.size() < 2) {
+				continue;
+			}
+			lits.clear();
+			boolean satisfied = false;
+			for (int j = 0; j < c.size() && !satisfied; j++) {
+				final int l = c.get(j);
+				if (voc.isUnassigned(l)) {
+					lits.push(l);
+				} else {
+					satisfied = voc.isSatisfied(l);
+				}
+			}
+			final int[] array = new int[lits.size()];
+			lits.copyTo(array);
+			add(array, c, i, null);
+			removed[nclauses - 1] = satisfied;
+			modified[nclauses - 1] = array.length < c.size();
+		}
+		final int nlits = 2 * voc.nVars() + 2;
+		for (int p = 2; p < nlits; p++) {
+			final int[] qs = voc.implications(p);
+			for (int j = voc.nbImplications(p) - 1; j >= 0; j--) {
+				// the clause (-p q) is implied by both -q and p
+				final int q = qs[j];
+				if ((p ^ 1) < q) {
+					final int[] pair = new int[] { p ^ 1, q };
+					add(pair, null, -1, pair);
+					removed[nclauses - 1] = voc.isSatisfied(p ^ 1)
+							|| voc.isSatisfied(q);
+				}
+			}
+		}
+		for (int p = 2; p < nlits; p++) {
+			if (occurrences[p] == null) {
+				occurrences[p] = new VecInt();
+			} else {
+				occurrences[p].clear();
+			}
+		}
+		for (int i = 0; i < nclauses; i++) {
+			if (!removed[i]) {
+				for (int l : clauses[i]) {
+					occurrences[l].push(i);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Equivalent literal substitution: the strongly connected components of
+	 * the binary implication graph are equivalent literals, which are replaced
+	 * by a representative literal in the clauses.
+	 */
+	private boolean substitute(IVec<Constr> learnts) {
+		final ILits voc = solver.voc;
+		final int nlits = 2 * voc.nVars() + 2;
+		// the binary implication graph in compressed rows
+		final int[] start = new int[nlits + 1];
+		final IVecInt edges = new VecInt();
+		for (int i = 0; i < nclauses; i++) {
+			if (!removed[i] && clauses[i].length == 2) {
+				edges.push(clauses[i][0]).push(clauses[i][1]);
+			}
+		}
+		for (int i = 0; i < learnts.size(); i++) {
+			final Constr c = learnts.get(i);
+			if (c.size() == 2 && !c.canBePropagatedMultipleTimes()
+					&& voc.isUnassigned(c.get(0))
+					&& voc.isUnassigned(c.get(1))) {
+				edges.push(c.get(0)).push(c.get(1));
+			}
+		}
+		for (int i = 0; i < edges.size(); i++) {
+			start[(edges.get(i) ^ 1) + 1]++;
+		}
+		for (int p = 0; p < nlits; p++) {
+			start[p + 1] += start[p];
+		}
+		final int[] targets = new int[edges.size()];
+		final int[] fill = Arrays.copyOf(start, nlits);
+		for (int i = 0; i < edges.size(); i += 2) {
+			final int a = edges.get(i);
+			final int b = edges.get(i + 1);
+			targets[fill[a ^ 1]++] = b;
+			targets[fill[b ^ 1]++] = a;
+		}
+		steps = effort - edges.size();
+
+		// iterative Tarjan algorithm
+		final int[] index = new int[nlits];
+		final int[] low = new int[nlits];
+		final boolean[] onstack = new boolean[nlits];
+		final int[] edge = new int[nlits];
+		final IVecInt stack = new VecInt();
+		final IVecInt path = new VecInt();
+		final int[] repr = new int[nlits];
+		for (int p = 0; p < nlits; p++) {
+			repr[p] = p;
+		}
+		int counter = 0;
+		for (int root = 2; root < nlits; root++) {
+			if (index[root] != 0 || start[root] == start[root + 1]) {
+				continue;
+			}
+			path.push(root);
+			index[root] = low[root] = ++counter;
+			edge[root] = start[root];
+			stack.push(root);
+			onstack[root] = true;
+			while (!path.isEmpty()) {
+				final int p = path.last();
+				if (edge[p] < start[p + 1]) {
+					final int q = targets[edge[p]++];
+					if (index[q] == 0) {
+						index[q] = low[q] = ++counter;
+						edge[q] = start[q];
+						stack.push(q);
+						onstack[q] = true;
+						path.push(q);
+					} else if (onstack[q]) {
+						low[p] = Math.min(low[p], index[q]);
+					}
+					continue;
+				}
+				path.pop();
+				if (!path.isEmpty()) {
+					low[path.last()] = Math.min(low[path.last()], low[p]);
+				}
+				if (low[p] != index[p]) {
+					continue;
+				}
+				// p is the root of a component, choose its representative
+				final int m = newMark();
+				int r = ILits.UNDEFINED;
+				for (int i = stack.size() - 1;; i--) {
+					final int q = stack.get(i);
+					if (marks[q ^ 1] == m) {
+						// a literal equivalent to its negation
+						return false;
+					}
+					marks[q] = m;
+					if (r == ILits.UNDEFINED
+							|| (frozen[q >> 1] && !frozen[r >> 1])
+							|| (frozen[q >> 1] == frozen[r >> 1] && q < r)) {
+						r = q;
+					}
+					if (q == p) {
+						break;
+					}
+				}
+				int q;
+				do {
+					q = stack.last();
+					stack.pop();
+					onstack[q] = false;
+					if (q != r && !frozen[q >> 1] && repr[q] == q
+							&& repr[q ^ 1] == (q ^ 1)) {
+						repr[q] = r;
+						repr[q ^ 1] = r ^ 1;
+					}
+				} while (q != p);
+			}
+		}
+
+		// the literals of the substituted variables are equivalent to their
+		// representative
+		boolean substituted = false;
+		for (int v = 1; v < nlits / 2; v++) {
+			final int p = v << 1;
+			if (repr[p] != p) {
+				substituted = true;
+				eliminated[v] = true;
+				solver.getStats().substitutedvars++;
+				extension.push(p).push(repr[p] ^ 1).push(2);
+				extension.push(p ^ 1).push(repr[p]).push(2);
+			}
+		}
+		if (!substituted) {
+			return true;
+		}
+		final IVecInt lits = new VecInt();
+		for (int i = 0; i < nclauses; i++) {
+			if (removed[i]) {
+				continue;
+			}
+			final int[] c = clauses[i];
+			boolean changed = false;
+			for (int l : c) {
+				changed |= repr[l] != l;
+			}
+			if (!changed) {
+				continue;
+			}
+			final int m = newMark();
+			lits.clear();
+			boolean tautology = false;
+			for (int l : c) {
+				final int q = repr[l];
+				if (marks[q ^ 1] == m) {
+					tautology = true;
+					break;
+				}
+				if (marks[q] != m) {
+					marks[q] = m;
+					lits.push(q);
+				}
+			}
+			if (tautology) {
+				removed[i] = true;
+			} else {
+				clauses[i] = new int[lits.size()];
+				lits.copyTo(clauses[i]);
+				modified[i] = true;
+				for (int l : clauses[i]) {
+					occurrences[l].push(i);
+				}
+			}
+		}
+		return true;
+	}
+
+	private boolean contains(int[] c, int lit) {
+		for (int l : c) {
+			if (l == lit) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Backward subsumption and self-subsumption, the shortest clauses first.
+	 */
+	private void subsume() {
+		steps = effort;
+		final int[] order = new int[nclauses];
+		int n = 0;
+		for (int i = 0; i < nclauses; i++) {
+			if (!removed[i]) {
+				order[n++] = i;
+			}
+		}
+		final int[] sorted = new int[n];
+		int maxlength = 0;
+		for (int k = 0; k < n; k++) {
+			maxlength = Math.max(maxlength, clauses[order[k]].length);
+		}
+		final int[] count = new int[maxlength + 2];
+		for (int k = 0; k < n; k++) {
+			count[clauses[order[k]].length + 1]++;
+		}
+		for (int l = 0; l <= maxlength; l++) {
+			count[l + 1] += count[l];
+		}
+		for (int k = 0; k < n; k++) {
+			sorted[count[clauses[order[k]].length]++] = order[k];
+		}
+
+		final SolverStats stats = solver.getStats();
+		for (int k = 0; k < n && steps > 0; k++) {
+			final int ci = sorted[k];
+			if (removed[ci]) {
+				continue;
+			}
+			final int[] c = clauses[ci];
+			int best = c[0];
+			int fewest = Integer.MAX_VALUE;
+			for (int l : c) {
+				final int nb = occurrences[l].size()
+						+ occurrences[l ^ 1].size();
+				if (nb < fewest) {
+					fewest = nb;
+					best = l;
+				}
+			}
+			final int m = newMark();
+			for (int l : c) {
+				marks[l] = m;
+			}
+			for (int polarity = 0; polarity < 2; polarity++) {
+				final IVecInt occs = occurrences[best ^ polarity];
+				for (int j = 0; j < occs.size(); j++) {
+					final int di = occs.get(j);
+					final int[] d = clauses[di];
+					if (di == ci || removed[di] || d.length < c.length) {
+						continue;
+					}
+					steps -= d.length;
+					int found = 0;
+					int flipped = ILits.UNDEFINED;
+					for (int l : d) {
+						if (marks[l] == m) {
+							found++;
+						} else if (marks[l ^ 1] == m) {
+							if (flipped != ILits.UNDEFINED) {
+								found = -1;
+								break;
+							}
+							flipped = l;
+						}
+					}
+					if (flipped == ILits.UNDEFINED && found == c.length) {
+						removed[di] = true;
+						stats.subsumedclauses++;
+					} else if (flipped != ILits.UNDEFINED
+							&& found == c.length - 1) {
+						final int[] nd = new int[d.length - 1];
+						int x = 0;
+						for (int l : d) {
+							if (l != flipped) {
+								nd[x++] = l;
+							}
+						}
+						clauses[di] = nd;
+						modified[di] = true;
+						stats.strengthenedclauses++;
+					}
+				}
+			}
+		}
+	}
+
+	private void occurring(int lit, IVecInt out) {
+		out.clear();
+		final IVecInt occs = occurrences[lit];
+		int j = 0;
+		for (int i = 0; i < occs.size(); i++) {
+			final int ci = occs.get(i);
+			if (!removed[ci] && contains(clauses[ci], lit)) {
+				occs.set(j++, ci);
+				out.push(ci);
+			}
+		}
+		occs.shrinkTo(j);
+	}
+
+	/**
+	 * Bounded variable elimination: a variable is eliminated if the clauses it
+	 * occurs in can be replaced by no more resolvents of limited length.
+	 */
+	private void eliminate() {
+		steps = effort;
+		final ILits voc = solver.voc;
+		final int nvars = voc.nVars();
+		final IVecInt pos = new VecInt();
+		final IVecInt neg = new VecInt();
+		final IVec<int[]> resolvents = new Vec<int[]>();
+		final IVecInt lits = new VecInt();
+		for (int v = 1; v <= nvars && steps > 0; v++) {
+			final int p = v << 1;
+			if (frozen[v] || eliminated[v] || !voc.belongsToPool(v)
+					|| !voc.isUnassigned(p)) {
+				continue;
+			}
+			occurring(p, pos);
+			occurring(p ^ 1, neg);
+			if (pos.size() + neg.size() == 0
+					|| pos.size() * neg.size() > RESOLUTION_LIMIT) {
+				continue;
+			}
+			boolean unit = false;
+			for (int i = 0; i < pos.size(); i++) {
+				unit |= clauses[pos.get(i)].length < 2;
+			}
+			for (int i = 0; i < neg.size(); i++) {
+				unit |= clauses[neg.get(i)].length < 2;
+			}
+			if (unit) {
+				continue;
+			}
+			resolvents.clear();
+			boolean bounded = true;
+			for (int i = 0; i < pos.size() && bounded; i++) {
+				final int[] c = clauses[pos.get(i)];
+				for (int j = 0; j < neg.size() && bounded; j++) {
+					final int[] d = clauses[neg.get(j)];
+					steps -= c.length + d.length;
+					final int m = newMark();
+					lits.clear();
+					boolean tautology = false;
+					for (int l : c) {
+						if (l != p) {
+							marks[l] = m;
+							lits.push(l);
+						}
+					}
+					for (int l : d) {
+						if (l == (p ^ 1) || marks[l] == m) {
+							continue;
+						}
+						if (marks[l ^ 1] == m) {
+							tautology = true;
+							break;
+						}
+						lits.push(l);
+					}
+					if (tautology) {
+						continue;
+					}
+					if (lits.size() > RESOLVENT_LIMIT
+							|| resolvents.size() >= pos.size() + neg.size()) {
+						bounded = false;
+					} else {
+						final int[] r = new int[lits.size()];
+						lits.copyTo(r);
+						resolvents.push(r);
+					}
+				}
+			}
+			if (!bounded) {
+				continue;
+			}
+			eliminated[v] = true;
+			solver.getStats().eliminatedvars++;
+			for (IVecInt occs : new IVecInt[] { pos, neg }) {
+				for (int i = 0; i < occs.size(); i++) {
+					final int ci = occs.get(i);
+					removed[ci] = true;
+					final int pivot = occs == pos ? p : p ^ 1;
+					extension.push(pivot);
+					for (int l : clauses[ci]) {
+						if (l != pivot) {
+							extension.push(l);
+						}
+					}
+					extension.push(clauses[ci].length);
+				}
+			}
+			for (int i = 0; i < resolvents.size(); i++) {
+				final int[] r = resolvents.get(i);
+				add(r, null, -1, null);
+				for (int l : r) {
+					occurrences[l].push(nclauses - 1);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Applies the changes to the constraints of the solver and propagates the
+	 * new unit clauses.
+	 */
+	private boolean commit(IVec<Constr> constrs, IVec<Constr> learnts) {
+		final ILits voc = solver.voc;
+		final boolean[] drop = new boolean[constrs.size()];
+		for (int i = 0; i < nclauses; i++) {
+			if (!removed[i] && !modified[i]) {
+				continue;
+			}
+			if (sources[i] != null) {
+				sources[i].remove(solver);
+				drop[indexes[i]] = true;
+			} else if (implicit[i] != null) {
+				final int a = implicit[i][0];
+				final int b = implicit[i][1];
+				voc.unimplies(a ^ 1, b);
+				voc.unimplies(b ^ 1, a);
+			}
+		}
+		int j = 0;
+		for (int i = 0; i < constrs.size(); i++) {
+			if (!drop[i]) {
+				constrs.moveTo(j++, i);
+			}
+		}
+		constrs.shrinkTo(j);
+		final IVecInt lits = new VecInt();
+		for (int i = 0; i < nclauses; i++) {
+			if (removed[i] || !modified[i]) {
+				continue;
+			}
+			lits.clear();
+			for (int l : clauses[i]) {
+				lits.push(l);
+			}
+			try {
+				final Constr c = solver.dsfactory.createClause(lits);
+				if (c != null && c.size() > 1) {
+					constrs.push(c);
+				}
+			} catch (ContradictionException e) {
+				return false;
+			}
+			sources[i] = null;
+		}
+		j = 0;
+		for (int i = 0; i < learnts.size(); i++) {
+			final Constr c = learnts.get(i);
+			boolean keep = true;
+			for (int k = 0; k < c.size() && keep; k++) {
+				keep = !eliminated[c.get(k) >> 1];
+			}
+			if (keep) {
+				learnts.moveTo(j++, i);
+			} else {
+				c.remove(solver);
+			}
+		}
+		learnts.shrinkTo(j);
+		// release the references to the constraints
+		Arrays.fill(sources, 0, nclauses, null);
+		Arrays.fill(clauses, 0, nclauses, null);
+		Arrays.fill(implicit, 0, nclauses, null);
+		return solver.propagate() == null;
+	}
+}
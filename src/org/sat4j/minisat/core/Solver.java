@@ -56,12 +56,11 @@ import java.io.PrintStream;
 import java.io.PrintWriter;
 import java.io.Serializable;
 import java.lang.reflect.Field;
+import java.util.Arrays;
 import java.util.Comparator;
 import java.util.HashMap;
 import java.util.Iterator;
 import java.util.Map;
-import java.util.Timer;
-import java.util.TimerTask;
 
 import org.sat4j.core.ConstrGroup;
 import org.sat4j.core.Vec;
@@ -144,6 +143,12 @@ public class Solver<D extends DataStructureFactory> implements ISolver,
 
 	private IOrder order;
 
+	private Inprocessor inprocessor;
+
+	private boolean trailReuse = false;
+
+	private int chronoDistance = Integer.MAX_VALUE;
+
 	private final ActivityComparator comparator = new ActivityComparator();
 
 	private SolverStats stats = new SolverStats();
@@ -164,6 +169,12 @@ public class Solver<D extends DataStructureFactory> implements ISolver,
 
 	private SearchListener slistener = new VoidTracing();
 
+	/**
+	 * false if the listener is the default one that ignores all events, then
+	 * the frequent events are not even computed.
+	 */
+	private boolean tracing = false;
+
 	private RestartStrategy restarter;
 
 	private final Map<String, Counter> constrTypes = new HashMap<String, Counter>();
@@ -254,6 +265,7 @@ public class Solver<D extends DataStructureFactory> implements ISolver,
 	 */
 	public void setSearchListener(SearchListener sl) {
 		slistener = sl;
+		tracing = !(sl instanceof VoidTracing);
 	}
 
 	/**
@@ -296,10 +308,7 @@ public class Solver<D extends DataStructureFactory> implements ISolver,
 	public void expireTimeout() {
 		undertimeout = false;
 		if (timeBasedTimeout) {
-			if (timer != null) {
-				timer.cancel();
-				timer = null;
-			}
+			deadline = NO_DEADLINE;
 		} else {
 			if (conflictCount != null) {
 				conflictCount = null;
@@ -496,8 +505,32 @@ public class Solver<D extends DataStructureFactory> implements ISolver,
 
 	private boolean[] mseen = new boolean[0];
 
+	/**
+	 * the variables marked in mseen by the conflict analysis, the marks of the
+	 * reason simplification are in analyzetoclear.
+	 */
+	private final IVecInt mseenvars = new VecInt();
+
 	private final IVecInt mpreason = new VecInt();
 
+	/**
+	 * Clears the marks of the previous conflict analysis, without touching
+	 * the rest of the array.
+	 */
+	private void clearSeen() {
+		final boolean[] seen = mseen;
+		final IVecInt seenvars = mseenvars;
+		for (int i = 0; i < seenvars.size(); i++) {
+			seen[seenvars.get(i)] = false;
+		}
+		seenvars.clear();
+		final IVecInt toclear = analyzetoclear;
+		for (int i = 0; i < toclear.size(); i++) {
+			seen[toclear.get(i) >> 1] = false;
+		}
+		toclear.clear();
+	}
+
 	private final IVecInt moutLearnt = new VecInt();
 
 	/**
@@ -511,11 +544,11 @@ public class Solver<D extends DataStructureFactory> implements ISolver,
 		final IVecInt outLearnt = moutLearnt;
 		final IVecInt preason = mpreason;
 
+		final IVecInt seenvars = mseenvars;
+
 		outLearnt.clear();
 		assert outLearnt.size() == 0;
-		for (int i = 0; i < seen.length; i++) {
-			seen[i] = false;
-		}
+		clearSeen();
 
 		int counter = 0;
 		int p = ILits.UNDEFINED;
@@ -537,6 +570,7 @@ public class Solver<D extends DataStructureFactory> implements ISolver,
 					order.updateVar(q);
 					if (!seen[q >> 1]) {
 						seen[q >> 1] = true;
+						seenvars.push(q >> 1);
 						if (voc.getLevel(q) == decisionLevel()) {
 							counter++;
 							order.updateVarAtDecisionLevel(q);
@@ -565,7 +599,9 @@ public class Solver<D extends DataStructureFactory> implements ISolver,
 		simplifier.simplify(outLearnt);
 
 		Constr c = dsfactory.createUnregisteredClause(outLearnt);
-		slistener.learn(c);
+		if (tracing) {
+			slistener.learn(c);
+		}
 		learnedConstraintsDeletionStrategy.onConflict(c);
 		results.reason = c;
 
@@ -606,12 +642,11 @@ public class Solver<D extends DataStructureFactory> implements ISolver,
 		}
 
 		assert outLearnt.size() == 0;
-		for (int i = 0; i < seen.length; i++) {
-			seen[i] = false;
-		}
+		clearSeen();
 
 		if (confl == null) {
 			seen[conflictingLiteral >> 1] = true;
+			mseenvars.push(conflictingLiteral >> 1);
 		}
 
 		int p = ILits.UNDEFINED;
@@ -638,6 +673,7 @@ public class Solver<D extends DataStructureFactory> implements ISolver,
 				int q = preason.get(j);
 				if (!seen[q >> 1]) {
 					seen[q >> 1] = true;
+					mseenvars.push(q >> 1);
 					if (voc.getReason(q) == null && voc.getLevel(q) > 0) {
 						assert assumps.contains(toDimacs(q));
 						outLearnt.push(toDimacs(q));
@@ -987,31 +1023,37 @@ public class Solver<D extends DataStructureFactory> implements ISolver,
 		ILits lvoc = voc;
 		SolverStats lstats = stats;
 		IOrder lorder = order;
-		SearchListener lslistener = slistener;
+		final boolean ltracing = tracing;
 		// ltrail.size() changes due to propagation
 		// cannot cache that value.
 		while (qhead < ltrail.size()) {
 			lstats.propagations++;
 			int p = ltrail.get(qhead++);
-			lslistener.propagating(toDimacs(p), null);
+			if (ltracing) {
+				slistener.propagating(toDimacs(p), null);
+			}
 			lorder.assignLiteral(p);
 			// p is the literal to propagate
 			// Moved original MiniSAT code to dsfactory to avoid
 			// watches manipulation in counter Based clauses for instance.
 			assert p > 1;
+			// implicit binary clauses first
+			Constr implied = lvoc.propagateImplications(p, this);
+			if (implied != null) {
+				qhead = ltrail.size(); // propQ.clear();
+				return implied;
+			}
+			// then clauses watched with a blocker literal
+			Propagatable conflict = lvoc.propagateBlocked(p, this);
+			if (conflict != null) {
+				qhead = ltrail.size(); // propQ.clear();
+				return (Constr) conflict;
+			}
 			lwatched.clear();
 			lvoc.watches(p).moveTo(lwatched);
 			final int size = lwatched.size();
 			for (int i = 0; i < size; i++) {
 				lstats.inspects++;
-				// try shortcut
-				// shortcut = shortcuts.get(i);
-				// if (shortcut != ILits.UNDEFINED && voc.isSatisfied(shortcut))
-				// {
-				// voc.watch(p, watched.get(i), shortcut);
-				// stats.shortcuts++;
-				// continue;
-				// }
 				if (!lwatched.get(i).propagate(this, p)) {
 					// Constraint is conflicting: copy remaining watches to
 					// watches[p]
@@ -1031,7 +1073,9 @@ public class Solver<D extends DataStructureFactory> implements ISolver,
 
 	void record(Constr constr) {
 		constr.assertConstraint(this);
-		slistener.adding(toDimacs(constr.get(0)));
+		if (tracing) {
+			slistener.adding(toDimacs(constr.get(0)));
+		}
 		if (constr.size() == 1) {
 			stats.learnedliterals++;
 		} else {
@@ -1055,8 +1099,10 @@ public class Solver<D extends DataStructureFactory> implements ISolver,
 	 */
 	private void cancel() {
 		// assert trail.size() == qhead || !undertimeout;
-		int decisionvar = trail.unsafeGet(trailLim.last());
-		slistener.backtracking(toDimacs(decisionvar));
+		if (tracing) {
+			int decisionvar = trail.unsafeGet(trailLim.last());
+			slistener.backtracking(toDimacs(decisionvar));
+		}
 		for (int c = trail.size() - trailLim.last(); c > 0; c--) {
 			undoOne();
 		}
@@ -1089,6 +1135,29 @@ public class Solver<D extends DataStructureFactory> implements ISolver,
 		qhead = trail.size();
 	}
 
+	/**
+	 * @return the lowest decision level above the root level whose decision
+	 *         has lower activity than the next decision of the variable order
+	 */
+	private int reusableLevel() {
+		if (!trailReuse || decisionLevel() == rootLevel) {
+			return rootLevel;
+		}
+		int next = order.select();
+		if (next == ILits.UNDEFINED) {
+			return rootLevel;
+		}
+		order.undo(next >> 1);
+		double activity = order.varActivity(next);
+		int level = rootLevel;
+		while (level < decisionLevel()
+				&& order.varActivity(trail.get(trailLim.get(level))) > activity) {
+			level++;
+		}
+		stats.reusedlevels += level - rootLevel;
+		return level;
+	}
+
 	private final Pair analysisResult = new Pair();
 
 	private boolean[] userbooleanmodel;
@@ -1096,7 +1165,7 @@ public class Solver<D extends DataStructureFactory> implements ISolver,
 	private IVecInt unsatExplanationInTermsOfAssumptions;
 
 	Lbool search(long nofConflicts, IVecInt assumps) {
-		assert rootLevel == decisionLevel();
+		assert rootLevel <= decisionLevel();
 		stats.starts++;
 		int conflictC = 0;
 		int backjumpLevel;
@@ -1106,7 +1175,17 @@ public class Solver<D extends DataStructureFactory> implements ISolver,
 		claDecay = 1 / params.getClaDecay();
 
 		do {
-			slistener.beginLoop();
+			if (tracing) {
+				slistener.beginLoop();
+			}
+			if (--deadlineCheck < 0) {
+				deadlineCheck = DEADLINE_CHECK_PERIOD;
+				if (System.currentTimeMillis() >= deadline
+						|| stats.propagations >= propagationLimit) {
+					undertimeout = false;
+					break;
+				}
+			}
 			// propage les clauses unitaires
 			Constr confl = propagate();
 			assert trail.size() == qhead;
@@ -1133,7 +1212,7 @@ public class Solver<D extends DataStructureFactory> implements ISolver,
 				if (conflictC >= nofConflicts) {
 					// Reached bound on number of conflicts
 					// Force a restart
-					cancelUntil(rootLevel);
+					cancelUntil(reusableLevel());
 					return Lbool.UNDEFINED;
 				}
 				if (needToReduceDB) {
@@ -1145,15 +1224,24 @@ public class Solver<D extends DataStructureFactory> implements ISolver,
 				stats.decisions++;
 				int p = order.select();
 				assert p > 1;
-				slistener.assuming(toDimacs(p));
+				if (tracing) {
+					slistener.assuming(toDimacs(p));
+				}
 				boolean ret = assume(p);
 				assert ret;
 			} else {
 				// un conflit apparait
 				stats.conflicts++;
 				conflictC++;
-				slistener.conflictFound(confl, decisionLevel(), trail.size());
-				conflictCount.newConflict();
+				if (tracing) {
+					slistener.conflictFound(confl, decisionLevel(),
+							trail.size());
+				}
+				ConflictTimer counter = conflictCount;
+				if (counter != null) {
+					// expireTimeout() might have been called concurrently
+					counter.newConflict();
+				}
 
 				if (decisionLevel() == rootLevel) {
 					// conflict at root level, the formula is inconsistent
@@ -1170,7 +1258,16 @@ public class Solver<D extends DataStructureFactory> implements ISolver,
 				assert analysisResult.backtrackLevel < decisionLevel();
 				backjumpLevel = Math.max(analysisResult.backtrackLevel,
 						rootLevel);
-				slistener.backjump(backjumpLevel);
+				if (backjumpLevel > rootLevel
+						&& decisionLevel() - backjumpLevel > chronoDistance) {
+					// the learnt clause is unit one level below as well, the
+					// asserted literal gets a higher level than necessary
+					backjumpLevel = decisionLevel() - 1;
+					stats.chronobacktracks++;
+				}
+				if (tracing) {
+					slistener.backjump(backjumpLevel);
+				}
 				cancelUntil(backjumpLevel);
 				if (backjumpLevel == rootLevel) {
 					conflictC = 0;
@@ -1232,6 +1329,16 @@ public class Solver<D extends DataStructureFactory> implements ISolver,
 			fullmodel = new int[tempmodel.size()];
 			tempmodel.moveTo(fullmodel);
 		}
+		if (inprocessor != null) {
+			// assign the eliminated variables
+			inprocessor.extendModel(userbooleanmodel);
+			for (int[] m : new int[][] { model, fullmodel }) {
+				for (int i = 0; m != null && i < m.length; i++) {
+					int var = Math.abs(m[i]);
+					m[i] = userbooleanmodel[var - 1] ? var : -var;
+				}
+			}
+		}
 		cancelUntil(rootLevel);
 	}
 
@@ -1287,7 +1394,6 @@ public class Solver<D extends DataStructureFactory> implements ISolver,
 	protected void reduceDB() {
 		stats.reduceddb++;
 		learnedConstraintsDeletionStrategy.reduce(learnts);
-		System.gc();
 	}
 
 	/**
@@ -1332,12 +1438,66 @@ public class Solver<D extends DataStructureFactory> implements ISolver,
 
 	private ConflictTimer conflictCount;
 
-	private transient Timer timer;
+	private static final long NO_DEADLINE = Long.MAX_VALUE;
+
+	/**
+	 * The number of iterations of the search loop between two checks of the
+	 * deadline.
+	 */
+	private static final int DEADLINE_CHECK_PERIOD = 64;
+
+	/**
+	 * The time based timeout is checked by the search loop itself, there is no
+	 * timer thread.
+	 */
+	private long deadline = NO_DEADLINE;
+
+	private int deadlineCheck;
+
+	private long propagationBudget = -1;
+
+	/**
+	 * The number of propagations after which the search is stopped, checked
+	 * together with the deadline.
+	 */
+	private long propagationLimit = Long.MAX_VALUE;
+
+	/**
+	 * Limits the number of propagations in each subsequent call of
+	 * isSatisfiable, in addition to the timeout. The budget is checked
+	 * together with the deadline, so it can be exceeded by a few iterations
+	 * of the search loop.
+	 * 
+	 * @param budget
+	 *            the maximum number of propagations, or negative for no limit
+	 */
+	public void setPropagationBudget(long budget) {
+		propagationBudget = budget;
+	}
 
 	public boolean isSatisfiable(IVecInt assumps) throws TimeoutException {
 		return isSatisfiable(assumps, false);
 	}
 
+	/**
+	 * Same as {@link #isSatisfiable(IVecInt)}, but the timeout of the solver is
+	 * replaced by a deadline for this call only.
+	 * 
+	 * @param assumps
+	 *            the assumptions
+	 * @param deadline
+	 *            the time, as given by {@link System#currentTimeMillis()},
+	 *            after which a {@link TimeoutException} is thrown
+	 * @return true iff the set of constraints is satisfiable under the
+	 *         assumptions
+	 * @throws TimeoutException
+	 *             if the deadline is reached
+	 */
+	public boolean isSatisfiable(IVecInt assumps, long deadline)
+			throws TimeoutException {
+		return isSatisfiable(assumps, false, deadline);
+	}
+
 	interface LearnedConstraintsDeletionStrategy extends Serializable {
 
 		void init();
@@ -1587,6 +1747,177 @@ public class Solver<D extends DataStructureFactory> implements ISolver,
 		}
 	};
 
+	/**
+	 * Learned clauses are kept in three tiers according to their LBD: the
+	 * core clauses (LBD at most 2) are never removed, the tier2 clauses (LBD at
+	 * most 6) are kept as long as they are used in conflict analysis between
+	 * two reductions, and the remaining local clauses are halved on each
+	 * reduction, highest LBD and unused clauses first. The LBD of a clause is
+	 * updated when it is used in conflict analysis.
+	 * 
+	 * The activity of a clause stores its LBD, plus one half if the clause was
+	 * used since the last reduction. The clauses to remove are selected by
+	 * counting them per LBD, so the learned clauses are never sorted.
+	 */
+	public final LearnedConstraintsDeletionStrategy tiered = new LearnedConstraintsDeletionStrategy() {
+
+		private static final long serialVersionUID = 1L;
+		private static final int CORE = 2;
+		private static final int TIER2 = 6;
+		private static final int MAX_LBD = 64;
+		private static final double USED = 0.5;
+		private int[] flags = new int[0];
+		private int flag = 0;
+		private final int[] counts = new int[2 * MAX_LBD + 2];
+
+		private final ConflictTimer clauseManagement = new ConflictTimerAdapter(
+				100) {
+			private static final long serialVersionUID = 1L;
+			private static final int FIRST_REDUCE = 2000;
+			private static final int INC_REDUCE = 300;
+			private int nbconflict = 0;
+			private int nextbound = FIRST_REDUCE;
+
+			@Override
+			void run() {
+				nbconflict += bound();
+				if (nbconflict >= nextbound) {
+					nextbound += INC_REDUCE;
+					nbconflict = 0;
+					needToReduceDB = true;
+				}
+			}
+
+			@Override
+			public void reset() {
+				super.reset();
+				nbconflict = 0;
+				nextbound = FIRST_REDUCE;
+			}
+		};
+
+		/**
+		 * @return the rank of a removable clause, the clauses of highest rank
+		 *         are removed first
+		 */
+		private int rank(Constr c) {
+			final double activity = c.getActivity();
+			final int lbd = Math.min((int) activity, MAX_LBD);
+			return activity == (int) activity ? 2 * lbd + 1 : 2 * lbd;
+		}
+
+		private boolean removable(Constr c) {
+			final double activity = c.getActivity();
+			final int lbd = (int) activity;
+			if (lbd <= CORE || c.size() == 2 || c.locked()) {
+				return false;
+			}
+			// the tier2 clauses are kept while they are used
+			return lbd > TIER2 || activity == lbd;
+		}
+
+		public void reduce(IVec<Constr> learnedConstrs) {
+			final int[] lcounts = counts;
+			Arrays.fill(lcounts, 0);
+			int candidates = 0;
+			for (int i = 0; i < learnedConstrs.size(); i++) {
+				Constr c = learnedConstrs.get(i);
+				if (removable(c)) {
+					lcounts[rank(c)]++;
+					candidates++;
+				}
+			}
+			// find the rank from which the clauses are removed
+			int toremove = candidates / 2;
+			int limit = lcounts.length;
+			while (toremove > 0) {
+				toremove -= lcounts[--limit];
+			}
+			// the number of clauses of rank limit to remove, oldest first
+			int atlimit = limit < lcounts.length ? lcounts[limit] + toremove
+					: 0;
+			int i, j;
+			for (i = j = 0; i < learnedConstrs.size(); i++) {
+				Constr c = learnedConstrs.get(i);
+				if (removable(c)) {
+					int r = rank(c);
+					if (r > limit || (r == limit && atlimit-- > 0)) {
+						c.remove(Solver.this);
+						continue;
+					}
+				}
+				if (c.getActivity() != (int) c.getActivity()) {
+					c.incActivity(-USED);
+				}
+				learnedConstrs.set(j++, c);
+			}
+			if (verbose) {
+				System.out.println(getLogPrefix()
+						+ "cleaning " + (learnedConstrs.size() - j) //$NON-NLS-1$
+						+ " clauses out of " + learnedConstrs.size()); //$NON-NLS-1$
+				System.out.flush();
+			}
+			learnedConstrs.shrinkTo(j);
+		}
+
+		public ConflictTimer getTimer() {
+			return clauseManagement;
+		}
+
+		@Override
+		public String toString() {
+			return "LBD tiered learned constraints deletion strategy";
+		}
+
+		public void init() {
+			final int howmany = voc.nVars();
+			if (flags.length <= howmany) {
+				flags = new int[howmany + 1];
+			}
+			flag = 0;
+			clauseManagement.reset();
+		}
+
+		private int lbd(Constr constr, int from) {
+			int nblevel = 0;
+			flag++;
+			int currentLevel;
+			for (int i = from; i < constr.size(); i++) {
+				currentLevel = voc.getLevel(constr.get(i));
+				if (currentLevel < 0) {
+					// the literal already undone by conflict analysis
+					currentLevel = decisionLevel();
+				}
+				if (flags[currentLevel] != flag) {
+					flags[currentLevel] = flag;
+					nblevel++;
+				}
+			}
+			return nblevel;
+		}
+
+		public void onConflict(Constr constr) {
+			constr.incActivity(1 + lbd(constr, 1));
+		}
+
+		public void onConflictAnalysis(Constr reason) {
+			if (!reason.learnt()) {
+				return;
+			}
+			double activity = reason.getActivity();
+			if (activity == (int) activity) {
+				reason.incActivity(USED);
+				activity += USED;
+			}
+			if (activity > CORE + USED) {
+				int nblevel = lbd(reason, 0);
+				if (nblevel < (int) activity) {
+					reason.incActivity(nblevel - (int) activity);
+				}
+			}
+		}
+	};
+
 	private LearnedConstraintsDeletionStrategy learnedConstraintsDeletionStrategy = glucose;
 
 	/**
@@ -1598,8 +1929,50 @@ public class Solver<D extends DataStructureFactory> implements ISolver,
 		learnedConstraintsDeletionStrategy = lcds;
 	}
 
+	/**
+	 * @param inprocessor
+	 *            the clause simplifications to run at decision level 0, or
+	 *            null to disable them
+	 */
+	public void setInprocessor(Inprocessor inprocessor) {
+		this.inprocessor = inprocessor;
+		if (inprocessor != null) {
+			inprocessor.setSolver(this);
+		}
+	}
+
+	public Inprocessor getInprocessor() {
+		return inprocessor;
+	}
+
+	/**
+	 * @param reuse
+	 *            if true, then the restarts keep the decision levels whose
+	 *            decisions would be made again before the next decision of
+	 *            the variable order
+	 */
+	public void setTrailReuse(boolean reuse) {
+		trailReuse = reuse;
+	}
+
+	/**
+	 * @param distance
+	 *            backtrack only one level instead of backjumping when the
+	 *            backjump would undo more than this many decision levels, or
+	 *            {@link Integer#MAX_VALUE} to always backjump
+	 */
+	public void setChronologicalBacktracking(int distance) {
+		assert distance > 0;
+		chronoDistance = distance;
+	}
+
 	public boolean isSatisfiable(IVecInt assumps, boolean global)
 			throws TimeoutException {
+		return isSatisfiable(assumps, global, NO_DEADLINE);
+	}
+
+	private boolean isSatisfiable(IVecInt assumps, boolean global,
+			long calldeadline) throws TimeoutException {
 		Lbool status = Lbool.UNDEFINED;
 		final int howmany = voc.nVars();
 		if (mseen.length <= howmany) {
@@ -1632,10 +2005,19 @@ public class Solver<D extends DataStructureFactory> implements ISolver,
 			}
 		}
 
-		// push previously learned literals
+		// push previously learned literals, they may contradict the unit
+		// clauses added since the previous call, and the clauses implying
+		// them may have been removed by the inprocessor
 		for (IteratorInt iterator = learnedLiterals.iterator(); iterator
 				.hasNext();) {
-			enqueue(iterator.next());
+			if (!enqueue(iterator.next())) {
+				// keep all of them for the next call
+				slistener.end(Lbool.FALSE);
+				while (trail.size() > learnedLiteralsLimit) {
+					undoOne();
+				}
+				return false;
+			}
 		}
 
 		// propagate constraints
@@ -1649,6 +2031,15 @@ public class Solver<D extends DataStructureFactory> implements ISolver,
 			return false;
 		}
 
+		// simplify the constraints before the assumptions
+		if (inprocessor != null
+				&& !inprocessor.inprocess(constrs, learnts, assumps)) {
+			slistener.end(Lbool.FALSE);
+			cancelUntil(0);
+			cancelLearntLiterals(learnedLiteralsLimit);
+			return false;
+		}
+
 		// push incremental assumptions
 		for (IteratorInt iterator = assumps.iterator(); iterator.hasNext();) {
 			int assump = iterator.next();
@@ -1680,21 +2071,22 @@ public class Solver<D extends DataStructureFactory> implements ISolver,
 		learner.init();
 
 		boolean firstTimeGlobal = false;
-		if (timeBasedTimeout) {
-			if (!global || timer == null) {
+		deadlineCheck = 0;
+		propagationLimit = propagationBudget < 0 ? Long.MAX_VALUE
+				: stats.propagations + propagationBudget;
+		if (calldeadline != NO_DEADLINE) {
+			undertimeout = true;
+			deadline = calldeadline;
+			conflictCount = learnedConstraintsDeletionStrategy.getTimer();
+		} else if (timeBasedTimeout) {
+			if (!global || deadline == NO_DEADLINE) {
 				firstTimeGlobal = true;
 				undertimeout = true;
-				TimerTask stopMe = new TimerTask() {
-					@Override
-					public void run() {
-						undertimeout = false;
-					}
-				};
-				timer = new Timer(true);
-				timer.schedule(stopMe, timeout);
+				deadline = System.currentTimeMillis() + timeout;
 				conflictCount = learnedConstraintsDeletionStrategy.getTimer();
 			}
 		} else {
+			deadline = NO_DEADLINE;
 			if (!global || conflictCount == null) {
 				firstTimeGlobal = true;
 				undertimeout = true;
@@ -1723,19 +2115,30 @@ public class Solver<D extends DataStructureFactory> implements ISolver,
 			if (status == Lbool.UNDEFINED) {
 				restarter.onRestart();
 				slistener.restarting();
+				if (inprocessor != null && rootLevel == 0 && undertimeout
+						&& !inprocessor.inprocess(constrs, learnts, assumps)) {
+					status = Lbool.FALSE;
+				}
 			}
 		}
 
 		cancelUntil(0);
 		cancelLearntLiterals(learnedLiteralsLimit);
-		if (!global && timeBasedTimeout) {
-			timer.cancel();
-			timer = null;
+		if (!global || calldeadline != NO_DEADLINE) {
+			deadline = NO_DEADLINE;
 		}
 		slistener.end(status);
 		if (!undertimeout) {
-			String message = " Timeout (" + timeout
-					+ (timeBasedTimeout ? "s" : " conflicts") + ") exceeded";
+			String message;
+			if (calldeadline != NO_DEADLINE) {
+				message = " Deadline exceeded";
+			} else if (stats.propagations >= propagationLimit) {
+				message = " Propagation budget exceeded";
+			} else {
+				message = " Timeout (" + timeout
+						+ (timeBasedTimeout ? "s" : " conflicts")
+						+ ") exceeded";
+			}
 			throw new TimeoutException(message); //$NON-NLS-1$//$NON-NLS-2$
 		}
 		return status == Lbool.TRUE;
@@ -1813,6 +2216,9 @@ public class Solver<D extends DataStructureFactory> implements ISolver,
 		dsfactory.reset();
 		stats.reset();
 		constrTypes.clear();
+		if (inprocessor != null) {
+			inprocessor.reset();
+		}
 	}
 
 	public int nVars() {
@@ -2035,6 +2441,9 @@ public class Solver<D extends DataStructureFactory> implements ISolver,
 	 * @since 2.2
 	 */
 	public IVecInt unsatExplanation() {
+		if (unsatExplanationInTermsOfAssumptions == null) {
+			return null;
+		}
 		IVecInt copy = new VecInt(unsatExplanationInTermsOfAssumptions.size());
 		unsatExplanationInTermsOfAssumptions.copyTo(copy);
 		return copy;
@@ -72,6 +72,22 @@ public class SolverStats implements Serializable {
 
 	public int shortcuts;
 
+	public int inprocessings;
+
+	public long failedliterals;
+
+	public long substitutedvars;
+
+	public long eliminatedvars;
+
+	public long subsumedclauses;
+
+	public long strengthenedclauses;
+
+	public long chronobacktracks;
+
+	public long reusedlevels;
+
 	public void reset() {
 		starts = 0;
 		decisions = 0;
@@ -88,6 +104,14 @@ public class SolverStats implements Serializable {
 		reducedliterals = 0;
 		changedreason = 0;
 		reduceddb = 0;
+		inprocessings = 0;
+		failedliterals = 0;
+		substitutedvars = 0;
+		eliminatedvars = 0;
+		subsumedclauses = 0;
+		strengthenedclauses = 0;
+		chronobacktracks = 0;
+		reusedlevels = 0;
 	}
 
 	public void printStat(PrintWriter out, String prefix) {
@@ -109,6 +133,15 @@ public class SolverStats implements Serializable {
 		out.println(prefix + "reason swapping (by a shorter reason)\t: "
 				+ changedreason);
 		out.println(prefix + "Calls to reduceDB\t: " + reduceddb);
+		out.println(prefix + "inprocessings\t\t: " + inprocessings);
+		out.println(prefix + "failed literals\t: " + failedliterals);
+		out.println(prefix + "substituted variables\t: " + substitutedvars);
+		out.println(prefix + "eliminated variables\t: " + eliminatedvars);
+		out.println(prefix + "subsumed clauses\t: " + subsumedclauses);
+		out.println(prefix + "strengthened clauses\t: "
+				+ strengthenedclauses);
+		out.println(prefix + "chronological backtracks\t: " + chronobacktracks);
+		out.println(prefix + "reused trail levels\t: " + reusedlevels);
 	}
 
 	public Map<String, Number> toMap() {
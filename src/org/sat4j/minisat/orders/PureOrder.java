@@ -74,8 +74,8 @@ public final class PureOrder extends VarOrderHeap {
 			cpt = 0;
 			int nblits = 2 * lits.nVars();
 			for (int i = 2; i <= nblits; i++) {
-				if (lits.isUnassigned(i) && lits.watches(i).size() > 0
-						&& lits.watches(i ^ 1).size() == 0) {
+				if (lits.isUnassigned(i) && lits.nbWatches(i) > 0
+						&& lits.nbWatches(i ^ 1) == 0) {
 					return i;
 				}
 			}
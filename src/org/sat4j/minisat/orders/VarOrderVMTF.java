@@ -0,0 +1,282 @@
+/*******************************************************************************
+ * SAT4J: a SATisfiability library for Java Copyright (C) 2004-2008 Daniel Le Berre
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Alternatively, the contents of this file may be used under the terms of
+ * either the GNU Lesser General Public License Version 2.1 or later (the
+ * "LGPL"), in which case the provisions of the LGPL are applicable instead
+ * of those above. If you wish to allow use of your version of this file only
+ * under the terms of the LGPL, and not to allow others to use your version of
+ * this file under the terms of the EPL, indicate your decision by deleting
+ * the provisions above and replace them with the notice and other provisions
+ * required by the LGPL. If you do not delete the provisions above, a recipient
+ * may use your version of this file under the terms of the EPL or the LGPL.
+ * 
+ * Based on the original MiniSat specification from:
+ * 
+ * An extensible SAT solver. Niklas Een and Niklas Sorensson. Proceedings of the
+ * Sixth International Conference on Theory and Applications of Satisfiability
+ * Testing, LNCS 2919, pp 502-518, 2003.
+ *
+ * See www.minisat.se for the original solver in C++.
+ * 
+ *******************************************************************************/
+package org.sat4j.minisat.orders;
+
+import static org.sat4j.core.LiteralsUtils.var;
+
+import java.io.PrintWriter;
+import java.io.Serializable;
+import java.util.Arrays;
+
+import org.sat4j.minisat.core.ILits;
+import org.sat4j.minisat.core.IOrder;
+import org.sat4j.minisat.core.IPhaseSelectionStrategy;
+
+/**
+ * Variable move to front heuristics. The variables are kept in a doubly linked
+ * queue, the variables of a conflict are moved to its end, and the decision
+ * variable is the last unassigned variable of the queue. Each variable has a
+ * stamp increasing along the queue, and all variables after the search
+ * position are assigned, so both bumping and selection take constant amortized
+ * time.
+ */
+public class VarOrderVMTF implements IOrder, Serializable {
+
+	private static final long serialVersionUID = 1L;
+
+	protected ILits lits;
+
+	protected IPhaseSelectionStrategy phaseStrategy;
+
+	/**
+	 * the neighbours of the variables in the queue, 0 is the end marker.
+	 */
+	private int[] prev = new int[1];
+
+	private int[] next = new int[1];
+
+	/**
+	 * the enqueue time of the variables, 0 if not in the queue.
+	 */
+	private int[] stamp = new int[1];
+
+	/**
+	 * the last conflict the variable was bumped in.
+	 */
+	private int[] bumped = new int[1];
+
+	private int first;
+
+	private int last;
+
+	private int search;
+
+	private int clock;
+
+	private int conflicts = 1;
+
+	/**
+	 * the variables bumped in the current conflict.
+	 */
+	private int[] bumps = new int[16];
+
+	private int nbumps;
+
+	/**
+	 * the stamps and the bumped variables packed for sorting.
+	 */
+	private long[] keys = new long[16];
+
+	private long moves = 0;
+
+	public VarOrderVMTF() {
+		this(new PhaseInLastLearnedClauseSelectionStrategy());
+	}
+
+	public VarOrderVMTF(IPhaseSelectionStrategy strategy) {
+		this.phaseStrategy = strategy;
+	}
+
+	public void setPhaseSelectionStrategy(IPhaseSelectionStrategy strategy) {
+		phaseStrategy = strategy;
+	}
+
+	public IPhaseSelectionStrategy getPhaseSelectionStrategy() {
+		return phaseStrategy;
+	}
+
+	public void setLits(ILits lits) {
+		this.lits = lits;
+	}
+
+	public int select() {
+		int var = search;
+		while (var != 0 && !lits.isUnassigned(var << 1))
+			var = prev[var];
+		search = var;
+		if (var == 0)
+			return ILits.UNDEFINED;
+		return phaseStrategy.select(var);
+	}
+
+	public void undo(int x) {
+		if (stamp[x] > stamp[search])
+			search = x;
+	}
+
+	/**
+	 * Marks the variable to be moved to the end of the queue after the
+	 * conflict analysis.
+	 * 
+	 * @param p
+	 *            a literal
+	 */
+	public void updateVar(int p) {
+		int var = var(p);
+		phaseStrategy.updateVar(p);
+		if (bumped[var] == conflicts || stamp[var] == 0)
+			return;
+		bumped[var] = conflicts;
+		if (nbumps == bumps.length)
+			bumps = copyOf(bumps, 2 * nbumps);
+		bumps[nbumps++] = var;
+	}
+
+	/**
+	 * Moves the marked variables to the end of the queue keeping their
+	 * relative order.
+	 */
+	private void flush() {
+		final int[] lbumps = bumps;
+		final int[] lstamp = stamp;
+		int n = nbumps;
+		nbumps = 0;
+		// the bumps follow the conflict analysis, so sort them by stamp
+		if (keys.length < n)
+			keys = new long[lbumps.length];
+		final long[] lkeys = keys;
+		for (int i = 0; i < n; i++) {
+			int var = lbumps[i];
+			lkeys[i] = (long) lstamp[var] << 32 | var;
+		}
+		Arrays.sort(lkeys, 0, n);
+		for (int i = 0; i < n; i++) {
+			int var = (int) lkeys[i];
+			if (var != last) {
+				dequeue(var);
+				enqueue(var);
+				moves++;
+			}
+			if (lits.isUnassigned(var << 1))
+				search = var;
+		}
+	}
+
+	private void dequeue(int var) {
+		int p = prev[var];
+		int n = next[var];
+		if (p != 0)
+			next[p] = n;
+		else
+			first = n;
+		if (n != 0)
+			prev[n] = p;
+		else
+			last = p;
+		if (search == var)
+			search = n != 0 ? n : p;
+	}
+
+	private void enqueue(int var) {
+		if (clock == Integer.MAX_VALUE)
+			restamp();
+		prev[var] = last;
+		next[var] = 0;
+		if (last != 0)
+			next[last] = var;
+		else
+			first = var;
+		last = var;
+		stamp[var] = ++clock;
+	}
+
+	private void restamp() {
+		clock = 0;
+		for (int var = first; var != 0; var = next[var])
+			stamp[var] = ++clock;
+	}
+
+	public void setVarDecay(double d) {
+		// do nothing
+	}
+
+	/**
+	 * Called once after each conflict, moves the bumped variables.
+	 */
+	public void varDecayActivity() {
+		flush();
+		conflicts++;
+	}
+
+	public double varActivity(int p) {
+		return stamp[var(p)];
+	}
+
+	/**
+	 * Keeps the order of the variables of the previous call that are still in
+	 * the pool, and appends the new variables in increasing order.
+	 */
+	public void init() {
+		int nlength = lits.nVars() + 1;
+		int[] kept = new int[nlength];
+		int size = 0;
+		for (int var = first; var != 0; var = next[var]) {
+			if (var < nlength && lits.belongsToPool(var))
+				kept[size++] = var;
+			stamp[var] = 0;
+		}
+		if (stamp.length < nlength) {
+			prev = copyOf(prev, nlength);
+			next = copyOf(next, nlength);
+			stamp = copyOf(stamp, nlength);
+			bumped = copyOf(bumped, nlength);
+		}
+		phaseStrategy.init(nlength);
+		first = last = clock = nbumps = 0;
+		for (int i = 0; i < size; i++)
+			enqueue(kept[i]);
+		for (int i = 1; i < nlength; i++) {
+			if (stamp[i] == 0 && lits.belongsToPool(i))
+				enqueue(i);
+		}
+		search = last;
+	}
+
+	private static int[] copyOf(int[] array, int length) {
+		int[] copy = new int[length];
+		System.arraycopy(array, 0, copy, 0, array.length);
+		return copy;
+	}
+
+	@Override
+	public String toString() {
+		return "VMTF heuristics using a move to front queue " + phaseStrategy; //$NON-NLS-1$
+	}
+
+	public void printStat(PrintWriter out, String prefix) {
+		out.println(prefix + "queue moves\t" + moves); //$NON-NLS-1$
+	}
+
+	public void assignLiteral(int p) {
+		// do nothing
+	}
+
+	public void updateVarAtDecisionLevel(int q) {
+		phaseStrategy.updateVarAtDecisionLevel(q);
+	}
+}
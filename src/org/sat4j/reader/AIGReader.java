@@ -31,67 +31,101 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.io.PrintWriter;
 
+import org.sat4j.core.VecInt;
 import org.sat4j.specs.ContradictionException;
 import org.sat4j.specs.IProblem;
 import org.sat4j.specs.ISolver;
+import org.sat4j.specs.IVecInt;
 import org.sat4j.tools.GateTranslator;
 
 /**
  * Reader for the Binary And Inverter Graph format defined by Armin Biere.
  * 
+ * The sequential circuits are unrolled to a given depth, the latches start
+ * from their initial values. The resulting problem is satisfiable iff one of
+ * the properties (the bad states, or the outputs if there are none) is true
+ * in one of the unrolled time frames while the invariant constraints hold in
+ * all time frames up to that one. A circuit without properties is only
+ * translated. The variables of the first time frame are the variables of the
+ * graph, so a combinational circuit is translated as before.
+ * 
  * @author daniel
  * 
  */
 public class AIGReader extends Reader {
 
-	private final static int FALSE = 0;
+	private final GateTranslator solver;
 
-	private final static int TRUE = 1;
+	private AndInverterGraph graph;
 
-	private final GateTranslator solver;
+	private int depth = 0;
 
-	private int maxvarid;
+	private int truevar;
+
+	/**
+	 * The solver literal of each AIG variable in the current time frame.
+	 */
+	private int[] frame = new int[0];
 
-	private int nbinputs;
+	private int[] previous = new int[0];
+
+	/**
+	 * The solver variables of the inputs in each time frame.
+	 */
+	private int[] inputs = new int[0];
 
 	AIGReader(ISolver s) {
 		solver = new GateTranslator(s);
 	}
 
+	/**
+	 * @param depth
+	 *            the index of the last time frame of the unrolled circuit, 0
+	 *            for the initial state only
+	 */
+	public void setDepth(int depth) {
+		if (depth < 0) {
+			throw new IllegalArgumentException();
+		}
+		this.depth = depth;
+	}
+
+	public int getDepth() {
+		return depth;
+	}
+
+	/**
+	 * @return the circuit read by the last call of
+	 *         {@link #parseInstance(InputStream)}
+	 */
+	public AndInverterGraph getGraph() {
+		return graph;
+	}
+
 	@Override
 	public String decode(int[] model) {
 		StringBuffer stb = new StringBuffer();
-		for (int i = 0; i < nbinputs; i++) {
-			stb.append(model[i] > 0 ? 1 : 0);
+		int ninputs = graph.getInputs();
+		for (int i = 0; i < inputs.length; i++) {
+			if (i > 0 && i % ninputs == 0) {
+				stb.append('\n');
+			}
+			stb.append(model[inputs[i] - 1] > 0 ? 1 : 0);
 		}
 		return stb.toString();
 	}
 
 	@Override
 	public void decode(int[] model, PrintWriter out) {
-		for (int i = 0; i < nbinputs; i++) {
-			out.print(model[i] > 0 ? 1 : 0);
+		int ninputs = graph.getInputs();
+		for (int i = 0; i < inputs.length; i++) {
+			if (i > 0 && i % ninputs == 0) {
+				out.println();
+			}
+			out.print(model[inputs[i] - 1] > 0 ? 1 : 0);
 		}
 	}
 
-	int parseInt(InputStream in, char expected) throws IOException,
-			ParseFormatException {
-		int res, ch;
-		ch = in.read();
-
-		if (ch < '0' || ch > '9')
-			throw new ParseFormatException("expected digit");
-		res = ch - '0';
-
-		while ((ch = in.read()) >= '0' && ch <= '9')
-			res = 10 * res + (ch - '0');
-
-		if (ch != expected)
-			throw new ParseFormatException("unexpected character");
-
-		return res;
-	}
-
 	/*
 	 * (non-Javadoc)
 	 * 
@@ -100,78 +134,123 @@ public class AIGReader extends Reader {
 	@Override
 	public IProblem parseInstance(InputStream in) throws ParseFormatException,
 			ContradictionException, IOException {
-		if (in.read() != 'a' || in.read() != 'i' || in.read() != 'g'
-				|| in.read() != ' ') {
-			throw new ParseFormatException("AIG format only!");
-		}
-		maxvarid = parseInt(in, ' ');
-		nbinputs = parseInt(in, ' ');
-		int nblatches = parseInt(in, ' ');
-		if (nblatches > 0) {
-			throw new ParseFormatException(
-					"CNF conversion cannot handle latches!");
+		graph = AndInverterGraph.read(in);
+		final int maxvar = graph.getMaxVar();
+		final int ninputs = graph.getInputs();
+		truevar = maxvar + 1;
+		solver.newVar(maxvar + 1);
+		solver.setExpectedNumberOfClauses((depth + 1)
+				* (3 * graph.getAnds() + 2 * graph.getProperties()
+						+ graph.getConstraints() + 2) + 2);
+		solver.gateTrue(truevar);
+
+		if (frame.length <= maxvar) {
+			frame = new int[maxvar + 1];
+			previous = new int[maxvar + 1];
 		}
-		int nboutputs = parseInt(in, ' ');
-		if (nboutputs > 1) {
-			throw new ParseFormatException(
-					"CNF conversion allowed for single output circuit only!");
+		inputs = new int[(depth + 1) * ninputs];
+		IVecInt hits = new VecInt(depth + 1);
+		IVecInt lits = new VecInt();
+		int valid = truevar;
+		for (int t = 0; t <= depth; t++) {
+			unroll(t);
+			for (int i = 0; i < ninputs; i++) {
+				inputs[t * ninputs + i] = frame[i + 1];
+			}
+
+			// the constraints hold in all time frames up to this one
+			if (graph.getConstraints() > 0) {
+				lits.clear();
+				if (valid != truevar) {
+					lits.push(valid);
+				}
+				for (int i = 0; i < graph.getConstraints(); i++) {
+					lits.push(toDimacs(graph.getConstraint(i)));
+				}
+				valid = solver.nextFreeVarId(true);
+				solver.and(valid, lits);
+			}
+
+			int bad;
+			if (graph.getProperties() == 0) {
+				continue;
+			} else if (graph.getProperties() == 1) {
+				bad = toDimacs(graph.getProperty(0));
+			} else {
+				lits.clear();
+				for (int i = 0; i < graph.getProperties(); i++) {
+					lits.push(toDimacs(graph.getProperty(i)));
+				}
+				bad = solver.nextFreeVarId(true);
+				solver.or(bad, lits);
+			}
+
+			if (valid == truevar) {
+				hits.push(bad);
+			} else {
+				int hit = solver.nextFreeVarId(true);
+				solver.and(hit, valid, bad);
+				hits.push(hit);
+			}
 		}
-		int nbands = parseInt(in, '\n');
-		solver.newVar(maxvarid + 1);
-		solver.setExpectedNumberOfClauses(3 * nbands + 2);
-		if (nboutputs > 0) {
-			assert nboutputs == 1;
-			int output0 = parseInt(in, '\n');
-			readAnd(nbands, output0, in, 2 * (nbinputs + 1));
+		if (graph.getProperties() > 0) {
+			solver.addClause(hits);
 		}
 		return solver;
 	}
 
-	static int safeGet(InputStream in) throws IOException, ParseFormatException {
-		int ch = in.read();
-		if (ch == -1) {
-			throw new ParseFormatException("AIG Error, EOF met too early");
-		}
-		return ch;
-	}
+	/**
+	 * Translates the and gates of the given time frame. The first time frame
+	 * uses the variables of the graph, the latches of the other ones are the
+	 * next states of the previous time frame.
+	 */
+	private void unroll(int t) throws ContradictionException {
+		final int ninputs = graph.getInputs();
+		final int nlatches = graph.getLatches();
+		final int[] swap = previous;
+		previous = frame;
+		frame = swap;
+		frame[0] = -truevar;
 
-	static int decode(InputStream in) throws IOException, ParseFormatException {
-		int x = 0, i = 0;
-		int ch;
+		if (t == 0) {
+			for (int v = 1; v <= graph.getMaxVar(); v++) {
+				frame[v] = v;
+			}
+			for (int i = 0; i < nlatches; i++) {
+				int reset = graph.getLatchReset(i);
+				if (reset == 0) {
+					solver.gateFalse(ninputs + i + 1);
+				} else if (reset == 1) {
+					solver.gateTrue(ninputs + i + 1);
+				}
+			}
+		} else {
+			for (int i = 0; i < ninputs; i++) {
+				frame[i + 1] = solver.nextFreeVarId(true);
+			}
+			for (int i = 0; i < nlatches; i++) {
+				frame[ninputs + i + 1] = toDimacs(previous,
+						graph.getLatchNext(i));
+			}
+			for (int i = 0; i < graph.getAnds(); i++) {
+				frame[ninputs + nlatches + i + 1] = solver
+						.nextFreeVarId(true);
+			}
+		}
 
-		while (((ch = safeGet(in)) & 0x80) > 0) {
-			System.out.println("=>" + ch);
-			x |= (ch & 0x7f) << (7 * i++);
+		for (int i = 0; i < graph.getAnds(); i++) {
+			solver.and(frame[ninputs + nlatches + i + 1],
+					toDimacs(graph.getAndInput0(i)),
+					toDimacs(graph.getAndInput1(i)));
 		}
-		return x | (ch << (7 * i));
 	}
 
-	private void readAnd(int nbands, int output0, InputStream in, int startid)
-			throws ContradictionException, IOException, ParseFormatException {
-		int lhs = startid;
-		for (int i = 0; i < nbands; i++) {
-			int delta0 = decode(in);
-			int delta1 = decode(in);
-			int rhs0 = lhs - delta0;
-			int rhs1 = rhs0 - delta1;
-			solver.and(toDimacs(lhs), toDimacs(rhs0), toDimacs(rhs1));
-			lhs += 2;
-		}
-		solver.gateTrue(maxvarid + 1);
-		solver.gateTrue(toDimacs(output0));
+	private int toDimacs(int lit) {
+		return toDimacs(frame, lit);
 	}
 
-	private int toDimacs(int v) {
-		if (v == FALSE) {
-			return -(maxvarid + 1);
-		}
-		if (v == TRUE) {
-			return maxvarid + 1;
-		}
-		int var = v >> 1;
-		if ((v & 1) == 0) {
-			return var;
-		}
-		return -var;
+	private static int toDimacs(int[] frame, int lit) {
+		int var = frame[lit >> 1];
+		return (lit & 1) == 0 ? var : -var;
 	}
 }
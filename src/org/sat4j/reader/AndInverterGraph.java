@@ -0,0 +1,374 @@
+/*******************************************************************************
+ * SAT4J: a SATisfiability library for Java Copyright (C) 2004-2008 Daniel Le Berre
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Alternatively, the contents of this file may be used under the terms of
+ * either the GNU Lesser General Public License Version 2.1 or later (the
+ * "LGPL"), in which case the provisions of the LGPL are applicable instead
+ * of those above. If you wish to allow use of your version of this file only
+ * under the terms of the LGPL, and not to allow others to use your version of
+ * this file under the terms of the EPL, indicate your decision by deleting
+ * the provisions above and replace them with the notice and other provisions
+ * required by the LGPL. If you do not delete the provisions above, a recipient
+ * may use your version of this file under the terms of the EPL or the LGPL.
+ * 
+ * Based on the original MiniSat specification from:
+ * 
+ * An extensible SAT solver. Niklas Een and Niklas Sorensson. Proceedings of the
+ * Sixth International Conference on Theory and Applications of Satisfiability
+ * Testing, LNCS 2919, pp 502-518, 2003.
+ *
+ * See www.minisat.se for the original solver in C++.
+ * 
+ *******************************************************************************/
+package org.sat4j.reader;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * An And Inverter Graph read from the binary AIGER format (version 1.9)
+ * defined by Armin Biere. The literals are in AIGER format: the variable is
+ * the literal divided by two, the lowest bit is the negation, and the literals
+ * 0 and 1 are the constants false and true. The inputs, the latches and the
+ * and gates are numbered consecutively from variable 1, as required by the
+ * binary format.
+ * 
+ * The justice and fairness properties are read but not kept.
+ */
+public class AndInverterGraph {
+
+	private static final int BUFFER_SIZE = 1 << 16;
+
+	private int maxvar;
+
+	private int ninputs;
+
+	private int nlatches;
+
+	private int nands;
+
+	private int[] latchNext = new int[0];
+
+	private int[] latchReset = new int[0];
+
+	private int[] outputs = new int[0];
+
+	private int[] bads = new int[0];
+
+	private int[] constraints = new int[0];
+
+	private int[] rhs0 = new int[0];
+
+	private int[] rhs1 = new int[0];
+
+	private final byte[] buffer = new byte[BUFFER_SIZE];
+
+	private int pos;
+
+	private int limit;
+
+	private InputStream in;
+
+	/**
+	 * Reads a graph in the binary AIGER format. The stream is read in large
+	 * blocks, so it does not need to be buffered, and it is read only up to
+	 * the end of the and gates, the symbol table and the comments are
+	 * ignored.
+	 * 
+	 * @param input
+	 *            the stream to be read
+	 * @return the graph
+	 * @throws ParseFormatException
+	 *             if the stream is not in binary AIGER format
+	 * @throws IOException
+	 *             if an I/O error occurs
+	 */
+	public static AndInverterGraph read(InputStream input)
+			throws ParseFormatException, IOException {
+		AndInverterGraph graph = new AndInverterGraph();
+		graph.parse(input);
+		return graph;
+	}
+
+	private void parse(InputStream input) throws ParseFormatException,
+			IOException {
+		in = input;
+		pos = 0;
+		limit = 0;
+		try {
+			if (next() != 'a' || next() != 'i' || next() != 'g'
+					|| next() != ' ') {
+				throw new ParseFormatException("AIG format only!");
+			}
+			maxvar = readInt(' ');
+			ninputs = readInt(' ');
+			nlatches = readInt(' ');
+			final int noutputs = readInt(' ');
+			nands = readNumber();
+			final int nbads = readHeaderInt();
+			final int nconstraints = readHeaderInt();
+			final int njustice = readHeaderInt();
+			final int nfairness = readHeaderInt();
+			if (peek() != '\n') {
+				throw new ParseFormatException("invalid AIG header");
+			}
+			next();
+			if (maxvar != ninputs + nlatches + nands) {
+				throw new ParseFormatException(
+						"the AIG variables are not numbered consecutively");
+			}
+
+			latchNext = new int[nlatches];
+			latchReset = new int[nlatches];
+			for (int i = 0; i < nlatches; i++) {
+				latchNext[i] = readLiteral();
+				if (peek() == ' ') {
+					next();
+					latchReset[i] = readLiteral();
+					int latch = getLatchLiteral(i);
+					if (latchReset[i] > 1 && latchReset[i] != latch) {
+						throw new ParseFormatException("invalid latch reset");
+					}
+				}
+				expect('\n');
+			}
+			outputs = readLiterals(noutputs);
+			bads = readLiterals(nbads);
+			constraints = readLiterals(nconstraints);
+			final int[] sizes = new int[njustice];
+			for (int i = 0; i < njustice; i++) {
+				sizes[i] = readInt('\n');
+			}
+			for (int i = 0; i < njustice; i++) {
+				readLiterals(sizes[i]);
+			}
+			readLiterals(nfairness);
+
+			rhs0 = new int[nands];
+			rhs1 = new int[nands];
+			int lhs = getAndLiteral(0);
+			for (int i = 0; i < nands; i++) {
+				final int r0 = lhs - readDelta();
+				final int r1 = r0 - readDelta();
+				if (r1 < 0 || r1 > r0 || r0 >= lhs) {
+					throw new ParseFormatException("invalid AIG and gate");
+				}
+				rhs0[i] = r0;
+				rhs1[i] = r1;
+				lhs += 2;
+			}
+		} finally {
+			in = null;
+		}
+	}
+
+	private int fill() throws IOException {
+		limit = in.read(buffer, 0, buffer.length);
+		pos = 0;
+		return limit;
+	}
+
+	private int peek() throws IOException {
+		if (pos >= limit && fill() <= 0) {
+			return -1;
+		}
+		return buffer[pos] & 0xff;
+	}
+
+	private int next() throws IOException, ParseFormatException {
+		if (pos >= limit && fill() <= 0) {
+			throw new ParseFormatException("AIG Error, EOF met too early");
+		}
+		return buffer[pos++] & 0xff;
+	}
+
+	private void expect(int ch) throws IOException, ParseFormatException {
+		if (next() != ch) {
+			throw new ParseFormatException("unexpected character");
+		}
+	}
+
+	private int readNumber() throws IOException, ParseFormatException {
+		int ch = next();
+		if (ch < '0' || ch > '9') {
+			throw new ParseFormatException("expected digit");
+		}
+		long res = ch - '0';
+		while ((ch = peek()) >= '0' && ch <= '9') {
+			next();
+			res = 10 * res + (ch - '0');
+			if (res > Integer.MAX_VALUE) {
+				throw new ParseFormatException("number too large");
+			}
+		}
+		return (int) res;
+	}
+
+	private int readInt(int terminator) throws IOException,
+			ParseFormatException {
+		final int res = readNumber();
+		expect(terminator);
+		return res;
+	}
+
+	/**
+	 * Reads an optional number of the header, preceded by a space.
+	 */
+	private int readHeaderInt() throws IOException, ParseFormatException {
+		if (peek() != ' ') {
+			return 0;
+		}
+		next();
+		return readNumber();
+	}
+
+	private int readLiteral() throws IOException, ParseFormatException {
+		final int lit = readNumber();
+		if (lit > 2 * maxvar + 1) {
+			throw new ParseFormatException("invalid AIG literal " + lit);
+		}
+		return lit;
+	}
+
+	private int[] readLiterals(int count) throws IOException,
+			ParseFormatException {
+		final int[] lits = new int[count];
+		for (int i = 0; i < count; i++) {
+			lits[i] = readLiteral();
+			expect('\n');
+		}
+		return lits;
+	}
+
+	private int readDelta() throws IOException, ParseFormatException {
+		int x = 0;
+		int shift = 0;
+		int ch;
+		while (((ch = next()) & 0x80) != 0) {
+			if (shift > 28) {
+				throw new ParseFormatException("invalid AIG delta");
+			}
+			x |= (ch & 0x7f) << shift;
+			shift += 7;
+		}
+		if (shift > 28 && ch > 0x0f) {
+			throw new ParseFormatException("invalid AIG delta");
+		}
+		return x | (ch << shift);
+	}
+
+	/**
+	 * @return the largest variable index
+	 */
+	public int getMaxVar() {
+		return maxvar;
+	}
+
+	public int getInputs() {
+		return ninputs;
+	}
+
+	public int getLatches() {
+		return nlatches;
+	}
+
+	public int getAnds() {
+		return nands;
+	}
+
+	public int getOutputs() {
+		return outputs.length;
+	}
+
+	public int getBads() {
+		return bads.length;
+	}
+
+	public int getConstraints() {
+		return constraints.length;
+	}
+
+	/**
+	 * @return the literal of the given input
+	 */
+	public int getInputLiteral(int index) {
+		return 2 * (index + 1);
+	}
+
+	/**
+	 * @return the literal of the current state of the given latch
+	 */
+	public int getLatchLiteral(int index) {
+		return 2 * (ninputs + index + 1);
+	}
+
+	/**
+	 * @return the literal of the next state of the given latch
+	 */
+	public int getLatchNext(int index) {
+		return latchNext[index];
+	}
+
+	/**
+	 * @return the initial value of the given latch: 0, 1, or its own literal
+	 *         if it is not initialized
+	 */
+	public int getLatchReset(int index) {
+		return latchReset[index];
+	}
+
+	/**
+	 * @return the output literal of the given and gate
+	 */
+	public int getAndLiteral(int index) {
+		return 2 * (ninputs + nlatches + index + 1);
+	}
+
+	/**
+	 * @return the first (larger) input literal of the given and gate
+	 */
+	public int getAndInput0(int index) {
+		return rhs0[index];
+	}
+
+	/**
+	 * @return the second (smaller) input literal of the given and gate
+	 */
+	public int getAndInput1(int index) {
+		return rhs1[index];
+	}
+
+	public int getOutput(int index) {
+		return outputs[index];
+	}
+
+	public int getBad(int index) {
+		return bads[index];
+	}
+
+	public int getConstraint(int index) {
+		return constraints[index];
+	}
+
+	/**
+	 * The properties checked by a model checker are the bad states, or the
+	 * outputs if there are no bad states, as in the older AIGER formats.
+	 * 
+	 * @return the number of properties
+	 */
+	public int getProperties() {
+		return bads.length > 0 ? bads.length : outputs.length;
+	}
+
+	/**
+	 * @return the literal of the given property, which is true in a bad state
+	 */
+	public int getProperty(int index) {
+		return bads.length > 0 ? bads[index] : outputs[index];
+	}
+}
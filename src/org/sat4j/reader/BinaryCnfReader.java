@@ -0,0 +1,116 @@
+/*******************************************************************************
+ * SAT4J: a SATisfiability library for Java Copyright (C) 2004-2008 Daniel Le Berre
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Alternatively, the contents of this file may be used under the terms of
+ * either the GNU Lesser General Public License Version 2.1 or later (the
+ * "LGPL"), in which case the provisions of the LGPL are applicable instead
+ * of those above. If you wish to allow use of your version of this file only
+ * under the terms of the LGPL, and not to allow others to use your version of
+ * this file under the terms of the EPL, indicate your decision by deleting
+ * the provisions above and replace them with the notice and other provisions
+ * required by the LGPL. If you do not delete the provisions above, a recipient
+ * may use your version of this file under the terms of the EPL or the LGPL.
+ * 
+ * Based on the original MiniSat specification from:
+ * 
+ * An extensible SAT solver. Niklas Een and Niklas Sorensson. Proceedings of the
+ * Sixth International Conference on Theory and Applications of Satisfiability
+ * Testing, LNCS 2919, pp 502-518, 2003.
+ *
+ * See www.minisat.se for the original solver in C++.
+ * 
+ *******************************************************************************/
+package org.sat4j.reader;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.PrintWriter;
+import java.nio.IntBuffer;
+
+import org.sat4j.core.VecInt;
+import org.sat4j.specs.ContradictionException;
+import org.sat4j.specs.IProblem;
+import org.sat4j.specs.ISolver;
+import org.sat4j.specs.IVecInt;
+
+/**
+ * Reader for the binary CNF format of {@link BinaryCnfFile}. Uncompressed
+ * local files are memory mapped.
+ */
+public class BinaryCnfReader extends Reader {
+
+	private final ISolver solver;
+
+	public BinaryCnfReader(ISolver solver) {
+		this.solver = solver;
+	}
+
+	@Override
+	public IProblem parseInstance(String filename)
+			throws ParseFormatException, IOException, ContradictionException {
+		File file = new File(filename);
+		if (!file.isFile() || !BinaryCnfFile.isBinaryCnf(file)) {
+			return super.parseInstance(filename);
+		}
+		BinaryCnfFile cnf = BinaryCnfFile.open(file);
+		try {
+			return parseInstance(cnf);
+		} finally {
+			cnf.close();
+		}
+	}
+
+	@Override
+	public IProblem parseInstance(InputStream in) throws ParseFormatException,
+			ContradictionException, IOException {
+		return parseInstance(new BinaryCnfFile(in));
+	}
+
+	private IProblem parseInstance(BinaryCnfFile cnf)
+			throws ParseFormatException, ContradictionException, IOException {
+		solver.newVar(cnf.getVariables());
+		solver.setExpectedNumberOfClauses((int) Math.min(cnf.getClauses(),
+				Integer.MAX_VALUE));
+		IVecInt clause = new VecInt();
+		IntBuffer block;
+		while ((block = cnf.nextBlock()) != null) {
+			while (block.hasRemaining()) {
+				int lit = block.get();
+				if (lit != 0) {
+					clause.push(lit);
+				} else {
+					solver.addClause(clause);
+					clause.clear();
+				}
+			}
+		}
+		return solver;
+	}
+
+	@Deprecated
+	@Override
+	public String decode(int[] model) {
+		StringBuffer stb = new StringBuffer();
+		for (int i = 0; i < model.length; i++) {
+			stb.append(model[i]);
+			stb.append(" ");
+		}
+		stb.append("0");
+		return stb.toString();
+	}
+
+	@Override
+	public void decode(int[] model, PrintWriter out) {
+		for (int i = 0; i < model.length; i++) {
+			out.print(model[i]);
+			out.print(" ");
+		}
+		out.print("0");
+	}
+}
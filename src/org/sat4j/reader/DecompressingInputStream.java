@@ -0,0 +1,319 @@
+/*******************************************************************************
+ * SAT4J: a SATisfiability library for Java Copyright (C) 2004-2008 Daniel Le Berre
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Alternatively, the contents of this file may be used under the terms of
+ * either the GNU Lesser General Public License Version 2.1 or later (the
+ * "LGPL"), in which case the provisions of the LGPL are applicable instead
+ * of those above. If you wish to allow use of your version of this file only
+ * under the terms of the LGPL, and not to allow others to use your version of
+ * this file under the terms of the EPL, indicate your decision by deleting
+ * the provisions above and replace them with the notice and other provisions
+ * required by the LGPL. If you do not delete the provisions above, a recipient
+ * may use your version of this file under the terms of the EPL or the LGPL.
+ * 
+ * Based on the original MiniSat specification from:
+ * 
+ * An extensible SAT solver. Niklas Een and Niklas Sorensson. Proceedings of the
+ * Sixth International Conference on Theory and Applications of Satisfiability
+ * Testing, LNCS 2919, pp 502-518, 2003.
+ *
+ * See www.minisat.se for the original solver in C++.
+ * 
+ *******************************************************************************/
+package org.sat4j.reader;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Decompresses a gzip, bzip2 or xz compressed stream on a separate thread, so
+ * that decompression and parsing overlap. The decompressed data is passed to
+ * the reading thread in a bounded number of reused blocks. The format is
+ * detected from the first bytes of the stream, see {@link #open(InputStream)}.
+ * Gzip is decoded by the JDK, bzip2 and xz by the <code>bzip2</code> and
+ * <code>xz</code> programs, which must be on the path.
+ */
+public class DecompressingInputStream extends InputStream {
+
+	private static final int BLOCK_SIZE = 1 << 16;
+
+	private static final int BLOCKS = 8;
+
+	private static final byte[] GZIP_MAGIC = { 0x1f, (byte) 0x8b };
+
+	private static final byte[] BZIP2_MAGIC = { 'B', 'Z', 'h' };
+
+	private static final byte[] XZ_MAGIC = { (byte) 0xfd, '7', 'z', 'X', 'Z',
+			0 };
+
+	private static final class Block {
+		final byte[] data = new byte[BLOCK_SIZE];
+
+		int length;
+	}
+
+	/**
+	 * Marks the end of the stream in the queue of full blocks.
+	 */
+	private static final Block END = new Block();
+
+	private final BlockingQueue<Block> full = new ArrayBlockingQueue<Block>(
+			BLOCKS + 1);
+
+	private final BlockingQueue<Block> free = new ArrayBlockingQueue<Block>(
+			BLOCKS);
+
+	private final InputStream source;
+
+	private final Process process;
+
+	private final Thread thread;
+
+	private volatile IOException error;
+
+	private volatile boolean closed;
+
+	private Block block;
+
+	private int pos;
+
+	/**
+	 * Returns a stream of the decompressed content if the given stream is
+	 * compressed with gzip, bzip2 or xz, and a buffered stream of the content
+	 * otherwise.
+	 * 
+	 * @param in
+	 *            a stream, which is closed when the returned stream is closed
+	 * @return the decompressed stream
+	 * @throws IOException
+	 *             if an I/O error occurs or the decompressor cannot be started
+	 */
+	public static InputStream open(InputStream in) throws IOException {
+		final BufferedInputStream buffered = new BufferedInputStream(in,
+				BLOCK_SIZE);
+		final byte[] magic = new byte[XZ_MAGIC.length];
+		buffered.mark(magic.length);
+		int size = 0;
+		int n;
+		while (size < magic.length
+				&& (n = buffered.read(magic, size, magic.length - size)) > 0) {
+			size += n;
+		}
+		buffered.reset();
+
+		if (startsWith(magic, size, GZIP_MAGIC)) {
+			return new DecompressingInputStream(new GZIPInputStream(buffered,
+					BLOCK_SIZE), null);
+		}
+		if (startsWith(magic, size, BZIP2_MAGIC)) {
+			return new DecompressingInputStream(buffered, "bzip2");
+		}
+		if (startsWith(magic, size, XZ_MAGIC)) {
+			return new DecompressingInputStream(buffered, "xz");
+		}
+		return buffered;
+	}
+
+	private static boolean startsWith(byte[] bytes, int size, byte[] prefix) {
+		if (size < prefix.length) {
+			return false;
+		}
+		for (int i = 0; i < prefix.length; i++) {
+			if (bytes[i] != prefix[i]) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Starts decompressing the given stream on a new thread.
+	 * 
+	 * @param in
+	 *            the stream to be read on the new thread
+	 * @param program
+	 *            the external program that decompresses the stream, or null if
+	 *            the stream is already decompressed
+	 * @throws IOException
+	 *             if the external program cannot be started
+	 */
+	private DecompressingInputStream(InputStream in, String program)
+			throws IOException {
+		source = in;
+		for (int i = 0; i < BLOCKS; i++) {
+			free.add(new Block());
+		}
+
+		final InputStream decoded;
+		if (program == null) {
+			process = null;
+			decoded = in;
+		} else {
+			try {
+				process = new ProcessBuilder(program, "-dc").redirectError(
+						ProcessBuilder.Redirect.INHERIT).start();
+			} catch (IOException e) {
+				in.close();
+				throw new IOException("the " + program
+						+ " program is needed to read this file", e);
+			}
+			decoded = process.getInputStream();
+			startDaemon(new Runnable() {
+				public void run() {
+					feed(program);
+				}
+			}, program + " input");
+		}
+
+		thread = startDaemon(new Runnable() {
+			public void run() {
+				decompress(decoded, program);
+			}
+		}, "decompressor");
+	}
+
+	private static Thread startDaemon(Runnable runnable, String name) {
+		final Thread thread = new Thread(runnable, name);
+		thread.setDaemon(true);
+		thread.start();
+		return thread;
+	}
+
+	/**
+	 * Copies the compressed stream to the external program.
+	 */
+	private void feed(String program) {
+		final byte[] buffer = new byte[BLOCK_SIZE];
+		try {
+			final OutputStream out = process.getOutputStream();
+			try {
+				int n;
+				while (!closed && (n = source.read(buffer)) >= 0) {
+					out.write(buffer, 0, n);
+				}
+			} finally {
+				out.close();
+			}
+		} catch (IOException e) {
+			if (!closed && error == null) {
+				error = e;
+			}
+		}
+	}
+
+	/**
+	 * Moves the decompressed data into the queue of full blocks.
+	 */
+	private void decompress(InputStream in, String program) {
+		try {
+			for (;;) {
+				final Block b = free.take();
+				int length = 0;
+				int n = 0;
+				while (length < BLOCK_SIZE) {
+					n = in.read(b.data, length, BLOCK_SIZE - length);
+					if (n < 0) {
+						break;
+					}
+					length += n;
+				}
+				b.length = length;
+				if (length > 0) {
+					full.put(b);
+				}
+				if (n < 0) {
+					break;
+				}
+			}
+			if (process != null && process.waitFor() != 0 && error == null) {
+				error = new IOException(program + " exited with status "
+						+ process.exitValue());
+			}
+		} catch (IOException e) {
+			if (error == null) {
+				error = e;
+			}
+		} catch (InterruptedException e) {
+			// closed by the reading thread
+		} finally {
+			full.offer(END);
+		}
+	}
+
+	/**
+	 * @return true iff there is a block with unread bytes
+	 */
+	private boolean nextBlock() throws IOException {
+		if (block == END) {
+			return false;
+		}
+		if (block != null) {
+			free.add(block);
+		}
+		try {
+			block = full.take();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new InterruptedIOException();
+		}
+		pos = 0;
+		if (block == END) {
+			if (error != null) {
+				throw error;
+			}
+			return false;
+		}
+		return true;
+	}
+
+	@Override
+	public int read() throws IOException {
+		if ((block == null || pos >= block.length) && !nextBlock()) {
+			return -1;
+		}
+		return block.data[pos++] & 0xff;
+	}
+
+	@Override
+	public int read(byte[] b, int off, int len) throws IOException {
+		if (len == 0) {
+			return 0;
+		}
+		if ((block == null || pos >= block.length) && !nextBlock()) {
+			return -1;
+		}
+		final int n = Math.min(len, block.length - pos);
+		System.arraycopy(block.data, pos, b, off, n);
+		pos += n;
+		return n;
+	}
+
+	@Override
+	public int available() {
+		return block == null || block == END ? 0 : block.length - pos;
+	}
+
+	@Override
+	public void close() throws IOException {
+		if (closed) {
+			return;
+		}
+		closed = true;
+		thread.interrupt();
+		if (process != null) {
+			process.destroy();
+		}
+		source.close();
+	}
+}
@@ -30,7 +30,6 @@ package org.sat4j.reader;
 import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.io.PrintWriter;
-import java.net.URL;
 import java.util.Locale;
 
 import org.sat4j.specs.ContradictionException;
@@ -39,7 +38,8 @@ import org.sat4j.specs.ISolver;
 
 /**
  * An reader having the responsability to choose the right reader according to
- * the input.
+ * the input. Compressed files are decompressed on a separate thread while
+ * they are parsed, see {@link DecompressingInputStream}.
  * 
  * @author leberre
  */
@@ -49,6 +49,8 @@ public class InstanceReader extends Reader {
 
 	private AIGReader aig;
 
+	private BinaryCnfReader bcnf;
+
 	private DimacsReader ezdimacs;
 
 	private LecteurDimacs dimacs;
@@ -83,6 +85,13 @@ public class InstanceReader extends Reader {
 		return aig;
 	}
 
+	private Reader getBinaryCnfReader() {
+		if (bcnf == null) {
+			bcnf = new BinaryCnfReader(solver);
+		}
+		return bcnf;
+	}
+
 	private Reader getAAGReader() {
 		if (aag == null) {
 			aag = new AAGReader(solver);
@@ -114,7 +123,8 @@ public class InstanceReader extends Reader {
 
 		}
 
-		if (filename.endsWith(".gz")) {
+		if (filename.endsWith(".gz") || filename.endsWith(".bz2")
+				|| filename.endsWith(".xz")) {
 			fname = filename.substring(0, filename.lastIndexOf('.'));
 		} else {
 			fname = filename;
@@ -125,13 +135,15 @@ public class InstanceReader extends Reader {
 			reader = getAAGReader();
 		} else if (fname.endsWith(".aig")) {
 			reader = getAIGReader();
+		} else if (fname.endsWith(".bcnf")) {
+			reader = getBinaryCnfReader();
 
 		} else {
 			reader = getDefaultSATReader();
 		}
 
 		if (isHttp) {
-			return reader.parseInstance((new URL(tempFileName)).openStream());
+			return reader.parseInstance(tempFileName);
 		}
 		return reader.parseInstance(filename);
 	}
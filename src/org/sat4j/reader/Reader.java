@@ -33,7 +33,6 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.io.PrintWriter;
 import java.net.URL;
-import java.util.zip.GZIPInputStream;
 
 import org.sat4j.specs.ContradictionException;
 import org.sat4j.specs.IProblem;
@@ -52,7 +51,8 @@ public abstract class Reader {
 	 * @param filename
 	 *            the fully qualified name of the benchmark. The filename
 	 *            extension may by used to detect which type of benchmarks it is
-	 *            (SAT, OPB, MAXSAT, etc).
+	 *            (SAT, OPB, MAXSAT, etc). Files compressed with gzip, bzip2 or
+	 *            xz are decompressed while they are read.
 	 * @return the problem to solve (an ISolver in fact).
 	 * @throws FileNotFoundException
 	 *             if the file cannot be found.
@@ -73,12 +73,7 @@ public abstract class Reader {
 			} else {
 				in = new FileInputStream(filename);
 			}
-			if (filename.endsWith(".gz")) {
-				in = new GZIPInputStream(in);
-			} else if (filename.endsWith(".bz2")) {
-				in = Runtime.getRuntime().exec("bunzip2 -c " + filename)
-						.getInputStream();
-			}
+			in = DecompressingInputStream.open(in);
 			IProblem problem;
 			problem = parseInstance(in);
 			return problem;
@@ -0,0 +1,251 @@
+/*******************************************************************************
+ * SAT4J: a SATisfiability library for Java Copyright (C) 2004-2008 Daniel Le Berre
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Alternatively, the contents of this file may be used under the terms of
+ * either the GNU Lesser General Public License Version 2.1 or later (the
+ * "LGPL"), in which case the provisions of the LGPL are applicable instead
+ * of those above. If you wish to allow use of your version of this file only
+ * under the terms of the LGPL, and not to allow others to use your version of
+ * this file under the terms of the EPL, indicate your decision by deleting
+ * the provisions above and replace them with the notice and other provisions
+ * required by the LGPL. If you do not delete the provisions above, a recipient
+ * may use your version of this file under the terms of the EPL or the LGPL.
+ * 
+ * Based on the original MiniSat specification from:
+ * 
+ * An extensible SAT solver. Niklas Een and Niklas Sorensson. Proceedings of the
+ * Sixth International Conference on Theory and Applications of Satisfiability
+ * Testing, LNCS 2919, pp 502-518, 2003.
+ *
+ * See www.minisat.se for the original solver in C++.
+ * 
+ *******************************************************************************/
+package org.sat4j.tools;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+
+import org.sat4j.reader.BinaryCnfFile;
+import org.sat4j.specs.ContradictionException;
+import org.sat4j.specs.IConstr;
+import org.sat4j.specs.IVecInt;
+
+/**
+ * Solver used to write the CNF instance to a file in the binary format of
+ * {@link BinaryCnfFile}, which can be loaded much faster than the Dimacs
+ * format. The FIXED encoding is written in the native byte order, so it can be
+ * memory mapped and passed to a native solver directly on the same machine.
+ * The header is written by {@link #close()}, the file is not valid before.
+ * 
+ * The I/O errors are thrown as {@link UncheckedIOException}.
+ */
+public class BinaryCnfOutputSolver extends AbstractOutputSolver {
+
+	private static final long serialVersionUID = 1L;
+
+	private transient final FileChannel channel;
+
+	private transient final ByteBuffer buffer;
+
+	private final int encoding;
+
+	private long nbliterals;
+
+	private long nbclausesWritten;
+
+	/**
+	 * Creates or overwrites the given file.
+	 * 
+	 * @param file
+	 *            the file to be written
+	 * @param encoding
+	 *            {@link BinaryCnfFile#FIXED} or {@link BinaryCnfFile#VARINT}
+	 * @throws IOException
+	 *             if the file cannot be created
+	 */
+	public BinaryCnfOutputSolver(File file, int encoding) throws IOException {
+		if (encoding != BinaryCnfFile.FIXED
+				&& encoding != BinaryCnfFile.VARINT) {
+			throw new IllegalArgumentException();
+		}
+		this.encoding = encoding;
+		channel = FileChannel.open(file.toPath(), StandardOpenOption.WRITE,
+				StandardOpenOption.CREATE,
+				StandardOpenOption.TRUNCATE_EXISTING);
+		buffer = ByteBuffer.allocate(1 << 16).order(ByteOrder.nativeOrder());
+		buffer.put(new byte[BinaryCnfFile.HEADER_SIZE]);
+	}
+
+	/**
+	 * Writes the VARINT encoding to the given file.
+	 */
+	public BinaryCnfOutputSolver(File file) throws IOException {
+		this(file, BinaryCnfFile.VARINT);
+	}
+
+	private void flush() throws IOException {
+		buffer.flip();
+		while (buffer.hasRemaining()) {
+			channel.write(buffer);
+		}
+		buffer.clear();
+	}
+
+	private void write(int lit) {
+		if (buffer.remaining() < 5) {
+			try {
+				flush();
+			} catch (IOException e) {
+				throw new UncheckedIOException(e);
+			}
+		}
+		if (encoding == BinaryCnfFile.FIXED) {
+			buffer.putInt(lit);
+		} else {
+			int code = lit < 0 ? 2 * -lit + 1 : 2 * lit;
+			while ((code & ~0x7f) != 0) {
+				buffer.put((byte) ((code & 0x7f) | 0x80));
+				code >>>= 7;
+			}
+			buffer.put((byte) code);
+		}
+	}
+
+	private void writeClause(int lit1, int lit2) {
+		write(lit1);
+		write(lit2);
+		write(0);
+		nbliterals += 2;
+		nbclausesWritten++;
+	}
+
+	/**
+	 * Writes the header and closes the file.
+	 * 
+	 * @throws IOException
+	 *             if an I/O error occurs
+	 */
+	public void close() throws IOException {
+		try {
+			flush();
+			ByteBuffer header = BinaryCnfFile.header(encoding, nbvars,
+					nbclausesWritten, nbliterals);
+			while (header.hasRemaining()) {
+				channel.write(header, header.position());
+			}
+		} finally {
+			channel.close();
+		}
+	}
+
+	@Deprecated
+	public int newVar() {
+		return 0;
+	}
+
+	public int newVar(int howmany) {
+		nbvars = Math.max(nbvars, howmany);
+		return nbvars;
+	}
+
+	public void setExpectedNumberOfClauses(int nb) {
+		nbclauses = nb;
+		fixedNbClauses = true;
+	}
+
+	public IConstr addClause(IVecInt literals) throws ContradictionException {
+		for (int i = 0; i < literals.size(); i++) {
+			int lit = literals.get(i);
+			nbvars = Math.max(nbvars, Math.abs(lit));
+			write(lit);
+		}
+		write(0);
+		nbliterals += literals.size();
+		nbclausesWritten++;
+		return null;
+	}
+
+	public IConstr addAtMost(IVecInt literals, int degree)
+			throws ContradictionException {
+		if (degree > 1) {
+			throw new UnsupportedOperationException(
+					"Not a clausal problem! degree " + degree);
+		}
+		assert degree == 1;
+		for (int i = 0; i < literals.size(); i++) {
+			nbvars = Math.max(nbvars, Math.abs(literals.get(i)));
+			for (int j = i + 1; j < literals.size(); j++) {
+				writeClause(-literals.get(i), -literals.get(j));
+			}
+		}
+		return null;
+	}
+
+	public IConstr addAtLeast(IVecInt literals, int degree)
+			throws ContradictionException {
+		if (degree > 1) {
+			throw new UnsupportedOperationException(
+					"Not a clausal problem! degree " + degree);
+		}
+		assert degree == 1;
+		return addClause(literals);
+	}
+
+	public IConstr addExactly(IVecInt literals, int n)
+			throws ContradictionException {
+		if (n > 1) {
+			throw new UnsupportedOperationException(
+					"Not a clausal problem! degree " + n);
+		}
+		assert n == 1;
+		addAtMost(literals, n);
+		addAtLeast(literals, n);
+		return null;
+	}
+
+	public void reset() {
+		fixedNbClauses = false;
+		firstConstr = true;
+	}
+
+	public String toString(String prefix) {
+		return "Binary CNF output solver";
+	}
+
+	public int nConstraints() {
+		return (int) Math.min(nbclausesWritten, Integer.MAX_VALUE);
+	}
+
+	public int nVars() {
+		return nbvars;
+	}
+
+	public int nextFreeVarId(boolean reserve) {
+		if (reserve) {
+			return ++nbvars;
+		}
+		return nbvars + 1;
+	}
+
+	public int[] modelWithInternalVariables() {
+		throw new UnsupportedOperationException();
+	}
+
+	public int realNumberOfVariables() {
+		return nbvars;
+	}
+
+	public void registerLiteral(int p) {
+		throw new UnsupportedOperationException();
+	}
+}
@@ -0,0 +1,173 @@
+/*******************************************************************************
+ * SAT4J: a SATisfiability library for Java Copyright (C) 2004-2008 Daniel Le Berre
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Alternatively, the contents of this file may be used under the terms of
+ * either the GNU Lesser General Public License Version 2.1 or later (the
+ * "LGPL"), in which case the provisions of the LGPL are applicable instead
+ * of those above. If you wish to allow use of your version of this file only
+ * under the terms of the LGPL, and not to allow others to use your version of
+ * this file under the terms of the EPL, indicate your decision by deleting
+ * the provisions above and replace them with the notice and other provisions
+ * required by the LGPL. If you do not delete the provisions above, a recipient
+ * may use your version of this file under the terms of the EPL or the LGPL.
+ * 
+ * Based on the original MiniSat specification from:
+ * 
+ * An extensible SAT solver. Niklas Een and Niklas Sorensson. Proceedings of the
+ * Sixth International Conference on Theory and Applications of Satisfiability
+ * Testing, LNCS 2919, pp 502-518, 2003.
+ *
+ * See www.minisat.se for the original solver in C++.
+ * 
+ *******************************************************************************/
+package org.sat4j.tools;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+import org.sat4j.specs.ContradictionException;
+import org.sat4j.specs.IConstr;
+import org.sat4j.specs.IVecInt;
+
+/**
+ * Solver used to write a CNF in Dimacs format to a {@link DimacsWriter}.
+ * 
+ * Unlike the DimacsStringSolver, it does not keep the formula in memory, so
+ * it can export formulas of any size, and unlike the DimacsOutputSolver, the
+ * number of clauses need not be known in advance. The I/O errors are thrown
+ * as {@link UncheckedIOException}, and the output is complete only after
+ * {@link #close()}.
+ */
+public class DimacsStreamSolver extends AbstractOutputSolver {
+
+	private static final long serialVersionUID = 1L;
+
+	private transient final DimacsWriter out;
+
+	public DimacsStreamSolver(DimacsWriter out) {
+		this.out = out;
+	}
+
+	/**
+	 * Writes the header if needed and closes the writer.
+	 * 
+	 * @throws IOException
+	 *             if an I/O error occurs
+	 */
+	public void close() throws IOException {
+		out.close();
+	}
+
+	@Deprecated
+	public int newVar() {
+		return 0;
+	}
+
+	public int newVar(int howmany) {
+		out.newVar(howmany);
+		return howmany;
+	}
+
+	public void setExpectedNumberOfClauses(int nb) {
+		nbclauses = nb;
+	}
+
+	public IConstr addClause(IVecInt literals) throws ContradictionException {
+		try {
+			out.writeClause(literals);
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+		return null;
+	}
+
+	public IConstr addAtMost(IVecInt literals, int degree)
+			throws ContradictionException {
+		if (degree > 1) {
+			throw new UnsupportedOperationException(
+					"Not a clausal problem! degree " + degree);
+		}
+		assert degree == 1;
+		try {
+			for (int i = 0; i < literals.size(); i++) {
+				out.newVar(Math.abs(literals.get(i)));
+				for (int j = i + 1; j < literals.size(); j++) {
+					out.writeClause(-literals.get(i), -literals.get(j));
+				}
+			}
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+		return null;
+	}
+
+	public IConstr addAtLeast(IVecInt literals, int degree)
+			throws ContradictionException {
+		if (degree > 1) {
+			throw new UnsupportedOperationException(
+					"Not a clausal problem! degree " + degree);
+		}
+		assert degree == 1;
+		return addClause(literals);
+	}
+
+	public IConstr addExactly(IVecInt literals, int n)
+			throws ContradictionException {
+		if (n > 1) {
+			throw new UnsupportedOperationException(
+					"Not a clausal problem! degree " + n);
+		}
+		assert n == 1;
+		addAtMost(literals, n);
+		addAtLeast(literals, n);
+		return null;
+	}
+
+	/**
+	 * Does nothing before the first clause, the written clauses cannot be
+	 * taken back.
+	 */
+	public void reset() {
+		if (out.nClauses() != 0) {
+			throw new UnsupportedOperationException(
+					"clauses are already written");
+		}
+	}
+
+	public String toString(String prefix) {
+		return "Dimacs stream solver";
+	}
+
+	public int nConstraints() {
+		return (int) Math.min(out.nClauses(), Integer.MAX_VALUE);
+	}
+
+	public int nVars() {
+		return out.nVars();
+	}
+
+	public int nextFreeVarId(boolean reserve) {
+		int var = out.nVars() + 1;
+		if (reserve) {
+			out.newVar(var);
+		}
+		return var;
+	}
+
+	public int[] modelWithInternalVariables() {
+		throw new UnsupportedOperationException();
+	}
+
+	public int realNumberOfVariables() {
+		return out.nVars();
+	}
+
+	public void registerLiteral(int p) {
+		throw new UnsupportedOperationException();
+	}
+}
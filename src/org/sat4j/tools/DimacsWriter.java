@@ -0,0 +1,329 @@
+/*******************************************************************************
+ * SAT4J: a SATisfiability library for Java Copyright (C) 2004-2008 Daniel Le Berre
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Alternatively, the contents of this file may be used under the terms of
+ * either the GNU Lesser General Public License Version 2.1 or later (the
+ * "LGPL"), in which case the provisions of the LGPL are applicable instead
+ * of those above. If you wish to allow use of your version of this file only
+ * under the terms of the LGPL, and not to allow others to use your version of
+ * this file under the terms of the EPL, indicate your decision by deleting
+ * the provisions above and replace them with the notice and other provisions
+ * required by the LGPL. If you do not delete the provisions above, a recipient
+ * may use your version of this file under the terms of the EPL or the LGPL.
+ * 
+ * Based on the original MiniSat specification from:
+ * 
+ * An extensible SAT solver. Niklas Een and Niklas Sorensson. Proceedings of the
+ * Sixth International Conference on Theory and Applications of Satisfiability
+ * Testing, LNCS 2919, pp 502-518, 2003.
+ *
+ * See www.minisat.se for the original solver in C++.
+ * 
+ *******************************************************************************/
+package org.sat4j.tools;
+
+import java.io.Closeable;
+import java.io.FileOutputStream;
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.SeekableByteChannel;
+import java.nio.channels.WritableByteChannel;
+
+import org.sat4j.specs.IVecInt;
+
+/**
+ * Writes a CNF in Dimacs format to a stream with bounded memory. The integers
+ * are encoded straight into a reused byte buffer, which is written to the
+ * channel whenever it fills up.
+ * 
+ * The <code>p cnf</code> line is written first if the numbers of variables
+ * and clauses are given by {@link #setHeader(int, long)} before the first
+ * clause. Otherwise a seekable channel (a file) starts with a blank line of
+ * fixed width that is replaced by the header when the writer is closed, and
+ * any other stream gets the header as its last line.
+ */
+public class DimacsWriter implements Closeable, Flushable {
+
+	/**
+	 * The width of the reserved header line, enough for any int and long.
+	 */
+	private static final int HEADER_WIDTH = 40;
+
+	private final WritableByteChannel channel;
+
+	private final OutputStream out;
+
+	private final ByteBuffer buffer = ByteBuffer.allocate(1 << 16);
+
+	private final byte[] digits = new byte[20];
+
+	private int nbvars;
+
+	private long nbclauses;
+
+	private int declaredvars = -1;
+
+	private long declaredclauses = -1;
+
+	private long headerPosition = -1;
+
+	private boolean started = false;
+
+	public DimacsWriter(WritableByteChannel channel) {
+		this.channel = channel;
+		out = null;
+	}
+
+	/**
+	 * Creates a writer to a stream. The channel of a {@link FileOutputStream}
+	 * is used, so the header can be patched at the beginning of the file,
+	 * which must not be opened in append mode then.
+	 * 
+	 * @param out
+	 *            the stream the CNF is written to
+	 */
+	public DimacsWriter(OutputStream out) {
+		if (out instanceof FileOutputStream) {
+			channel = ((FileOutputStream) out).getChannel();
+		} else {
+			channel = Channels.newChannel(out);
+		}
+		this.out = out;
+	}
+
+	/**
+	 * Declares the numbers of variables and clauses, so the header is written
+	 * first. It must be called before the first clause, and the declared
+	 * numbers must not be exceeded.
+	 * 
+	 * @param vars
+	 *            the number of variables
+	 * @param clauses
+	 *            the number of clauses
+	 */
+	public void setHeader(int vars, long clauses) {
+		if (started) {
+			throw new IllegalStateException("clauses are already written");
+		}
+		declaredvars = vars;
+		declaredclauses = clauses;
+	}
+
+	/**
+	 * @return the largest variable written so far or declared by
+	 *         {@link #newVar(int)}
+	 */
+	public int nVars() {
+		return nbvars;
+	}
+
+	/**
+	 * @return the number of clauses written so far
+	 */
+	public long nClauses() {
+		return nbclauses;
+	}
+
+	/**
+	 * Makes sure the header covers the given number of variables, even if
+	 * some of them do not occur in the clauses.
+	 */
+	public void newVar(int howmany) {
+		nbvars = Math.max(nbvars, howmany);
+	}
+
+	private void start() throws IOException {
+		started = true;
+		if (declaredvars >= 0) {
+			writeHeader(declaredvars, declaredclauses, 0);
+		} else if (channel instanceof SeekableByteChannel) {
+			reserve(HEADER_WIDTH + 1);
+			// the comments written so far may still be in the buffer
+			headerPosition = ((SeekableByteChannel) channel).position()
+					+ buffer.position();
+			for (int i = 0; i < HEADER_WIDTH; i++) {
+				buffer.put((byte) ' ');
+			}
+			buffer.put((byte) '\n');
+		}
+	}
+
+	/**
+	 * Writes the header line, padded with spaces to the given width.
+	 */
+	private void writeHeader(int vars, long clauses, int width)
+			throws IOException {
+		reserve(HEADER_WIDTH + 1);
+		final int start = buffer.position();
+		put('p');
+		put(' ');
+		put('c');
+		put('n');
+		put('f');
+		put(' ');
+		put(vars);
+		put(' ');
+		put(clauses);
+		while (buffer.position() - start < width) {
+			put(' ');
+		}
+		put('\n');
+	}
+
+	private void reserve(int size) throws IOException {
+		if (buffer.remaining() < size) {
+			flushBuffer();
+		}
+	}
+
+	private void put(char ch) {
+		buffer.put((byte) ch);
+	}
+
+	/**
+	 * Encodes a number, the buffer must have room for 20 bytes.
+	 */
+	private void put(long value) {
+		if (value < 0) {
+			buffer.put((byte) '-');
+			value = -value;
+		}
+		int n = 0;
+		do {
+			digits[n++] = (byte) ('0' + value % 10);
+			value /= 10;
+		} while (value != 0);
+		while (n > 0) {
+			buffer.put(digits[--n]);
+		}
+	}
+
+	private void putLiteral(int lit) throws IOException {
+		reserve(13);
+		put((long) lit);
+		put(' ');
+		final int var = lit < 0 ? -lit : lit;
+		if (var > nbvars) {
+			nbvars = var;
+		}
+	}
+
+	private void endClause() throws IOException {
+		reserve(2);
+		put('0');
+		put('\n');
+		nbclauses++;
+	}
+
+	public void writeClause(int... literals) throws IOException {
+		if (!started) {
+			start();
+		}
+		for (int lit : literals) {
+			putLiteral(lit);
+		}
+		endClause();
+	}
+
+	public void writeClause(IVecInt literals) throws IOException {
+		if (!started) {
+			start();
+		}
+		for (int i = 0; i < literals.size(); i++) {
+			putLiteral(literals.get(i));
+		}
+		endClause();
+	}
+
+	/**
+	 * Writes the remaining literals of the buffer, each clause terminated by a
+	 * zero, without changing its position.
+	 */
+	public void writeClauses(IntBuffer clauses) throws IOException {
+		if (!started) {
+			start();
+		}
+		final int end = clauses.limit();
+		for (int i = clauses.position(); i < end; i++) {
+			final int lit = clauses.get(i);
+			if (lit != 0) {
+				putLiteral(lit);
+			} else {
+				endClause();
+			}
+		}
+	}
+
+	/**
+	 * Writes a comment line, which must not contain line breaks.
+	 */
+	public void writeComment(String comment) throws IOException {
+		final byte[] bytes = ("c " + comment + "\n").getBytes("US-ASCII");
+		if (bytes.length > buffer.remaining()) {
+			flushBuffer();
+		}
+		if (bytes.length > buffer.capacity()) {
+			channel.write(ByteBuffer.wrap(bytes));
+		} else {
+			buffer.put(bytes);
+		}
+	}
+
+	private void flushBuffer() throws IOException {
+		buffer.flip();
+		while (buffer.hasRemaining()) {
+			channel.write(buffer);
+		}
+		buffer.clear();
+	}
+
+	/**
+	 * Writes the buffered data to the channel.
+	 */
+	public void flush() throws IOException {
+		flushBuffer();
+		if (out != null) {
+			out.flush();
+		}
+	}
+
+	/**
+	 * Writes the header if it was not declared, and closes the channel.
+	 */
+	public void close() throws IOException {
+		try {
+			if (!started) {
+				start();
+			}
+			if (declaredvars >= 0) {
+				if (nbvars > declaredvars || nbclauses != declaredclauses) {
+					throw new IOException(
+							"the Dimacs header does not match the clauses");
+				}
+				flushBuffer();
+			} else if (headerPosition >= 0) {
+				flushBuffer();
+				final SeekableByteChannel file = (SeekableByteChannel) channel;
+				final long end = file.position();
+				file.position(headerPosition);
+				writeHeader(nbvars, nbclauses, HEADER_WIDTH);
+				flushBuffer();
+				file.position(end);
+			} else {
+				writeHeader(nbvars, nbclauses, 0);
+				flushBuffer();
+			}
+		} finally {
+			channel.close();
+		}
+	}
+}